@@ -0,0 +1,47 @@
+package com.example.librarymanagementsystem.benchmarks;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Runs the repository and service benchmarks twice, with the GC profiler attached:
+//   1. throughput in ops/s           -> baseline-throughput.json
+//   2. sampled latency (p50..p99.99) -> baseline-latency.json
+// Both include gc.alloc.rate and gc.alloc.rate.norm (bytes per operation). Keep the JSON files of a
+// run before a change and compare them with a run after it (e.g. on jmh.morethan.io)
+//
+//   java -cp benchmarks/target/benchmarks.jar com.example.librarymanagementsystem.benchmarks.Baseline [regex] [records,...]
+public final class Baseline {
+
+    private static final String DEFAULT_INCLUDE = "RepositoryBenchmark|ServiceBenchmark";
+
+    private Baseline() { }
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : DEFAULT_INCLUDE;
+        String[] records = args.length > 1 ? args[1].split(",") : null;
+
+        run(include, records, Mode.Throughput, TimeUnit.SECONDS, "baseline-throughput.json");
+        run(include, records, Mode.SampleTime, TimeUnit.MICROSECONDS, "baseline-latency.json");
+    }
+
+    private static void run(String include, String[] records, Mode mode, TimeUnit unit, String result)
+            throws RunnerException {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(include)
+                .mode(mode)
+                .timeUnit(unit)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result);
+        if (records != null) {
+            options.param("records", records); // e.g. 10000,100000 for a quicker run
+        }
+        new Runner(options.build()).run();
+    }
+}
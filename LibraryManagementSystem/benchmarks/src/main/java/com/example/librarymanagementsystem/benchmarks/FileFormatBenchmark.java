@@ -0,0 +1,90 @@
+package com.example.librarymanagementsystem.benchmarks;
+
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.util.JsonMappers;
+import com.example.librarymanagementsystem.util.WireFormats;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Data file in JSON vs CBOR vs Smile: streaming load and durable persist of `records` books
+// Same code paths as loadStreaming / persistStreaming in FileHandlerBenchmark, with the
+// application's Jackson settings for each format (WireFormats). The file size per format is
+// printed once per trial; bytes/s and records/s come from FileHandlerBenchmark.Transferred
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class FileFormatBenchmark {
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    public WireFormats.Format format;
+
+    @Param({"10000", "100000", "1000000"})
+    public int records;
+
+    private Path directory;
+    private Path source;
+    private long sourceBytes;
+    private List<Book> books;
+    private ObjectReader reader;
+    private ObjectWriter writer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        WireFormats wireFormats = new WireFormats(JsonMappers.create());
+        reader = wireFormats.mapper(format).readerFor(Book.class);
+        writer = wireFormats.mapper(format).writerFor(Book.class);
+
+        directory = Files.createTempDirectory("file-format-bench");
+        books = SyntheticData.books(records, Fixtures.SEED);
+        source = directory.resolve("books." + format.name().toLowerCase());
+        sourceBytes = FileHandlerBenchmark.persist(source, writer, books);
+
+        System.out.printf("%n%s, %d books: %.1f MB (%.0f bytes/book)%n",
+                format, records, sourceBytes / 1e6, sourceBytes / (double) records);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<Book> load(FileHandlerBenchmark.Transferred transferred) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(source), 64 * 1024)) {
+            List<Book> loaded = FileHandlerBenchmark.readArray(reader, in);
+            transferred.add(sourceBytes, loaded.size());
+            return loaded;
+        }
+    }
+
+    @Benchmark
+    public void persist(FileHandlerBenchmark.Transferred transferred) throws IOException {
+        long written = FileHandlerBenchmark.persist(directory.resolve("persisted"), writer, books);
+        transferred.add(written, books.size());
+    }
+}
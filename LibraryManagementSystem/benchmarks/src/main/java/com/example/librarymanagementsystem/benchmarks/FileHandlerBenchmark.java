@@ -0,0 +1,210 @@
+package com.example.librarymanagementsystem.benchmarks;
+
+import ch.qos.logback.classic.Logger;
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.util.CacheHelper;
+import com.example.librarymanagementsystem.util.FragmentCache;
+import com.example.librarymanagementsystem.util.JsonFileHandler;
+import com.example.librarymanagementsystem.util.JsonMappers;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Loading and persisting books.json with `records` books, the way startup and writes do it
+//
+// Load:
+// - loadWholeFile: JsonFileHandler.readFromFile as used at startup (whole file into a String, then parse)
+// - loadStreaming: records parsed one at a time from a buffered stream, no String copy of the file
+// - loadMapped: the same parse over a read-only memory-mapped file
+// Persist (all write a temp file, fsync it and move it over the target, like JsonFileHandler):
+// - persistWholeFile: JsonFileHandler.writeToFile without fragments (every record serialized)
+// - persistFragments: JsonFileHandler.writeToFile with the repository's FragmentCache warm
+//   (nothing changed since the last write; at 1M records part of it no longer fits the cache)
+// - persistStreaming: a SequenceWriter straight into the temp file
+//
+// Besides ops/s, the Transferred counters report bytes/s (/ 1e6 for MB/s) and records/s.
+// Run with -prof gc: gc.alloc.rate.norm / records is the allocation per record.
+// FileFormatBenchmark compares JSON with Smile and CBOR on the streaming paths
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class FileHandlerBenchmark {
+
+    static final TypeReference<List<Book>> BOOK_LIST = new TypeReference<>() { };
+
+    @Param({"10000", "100000", "1000000"})
+    public int records;
+
+    private Path directory;
+    private Path source;
+    private long sourceBytes;
+    private List<Book> books;
+    private JsonFileHandler<Book> reader;
+    private JsonFileHandler<Book> plainWriter;
+    private JsonFileHandler<Book> fragmentWriter;
+    private ObjectReader bookReader;
+    private ObjectWriter bookWriter;
+
+    // Bytes and records moved per iteration, reported as rates next to ops/s
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Transferred {
+        public long bytes;
+        public long records;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+            records = 0;
+        }
+
+        void add(long bytes, long records) {
+            this.bytes += bytes;
+            this.records += records;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Without logback-spring.xml everything would log at DEBUG; one INFO line per load is not the subject here
+        ((Logger) LoggerFactory.getLogger(JsonFileHandler.class)).setLevel(ch.qos.logback.classic.Level.WARN);
+
+        directory = Files.createTempDirectory("file-handler-bench");
+        books = SyntheticData.books(records, Fixtures.SEED);
+        bookReader = JsonMappers.shared().readerFor(Book.class);
+        bookWriter = JsonMappers.shared().writerFor(Book.class);
+
+        source = directory.resolve("books.json");
+        CacheHelper cacheHelper = new CacheHelper();
+        reader = new JsonFileHandler<>(source.toString(), BOOK_LIST, cacheHelper);
+        reader.writeToFile(books);
+        sourceBytes = Files.size(source);
+
+        plainWriter = new JsonFileHandler<>(directory.resolve("plain.json").toString(), BOOK_LIST, cacheHelper);
+        FragmentCache<Book> fragments = new FragmentCache<>(Book.class, Book::getId, FragmentCache.DEFAULT_MAX_BYTES);
+        fragmentWriter = new JsonFileHandler<>(directory.resolve("fragments.json").toString(), BOOK_LIST,
+                cacheHelper, fragments);
+        fragmentWriter.writeToFile(books); // Warm the fragments
+
+        System.out.printf("%n%d books: %.1f MB (%.0f bytes/book)%n",
+                records, sourceBytes / 1e6, sourceBytes / (double) records);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<Book> loadWholeFile(Transferred transferred) {
+        List<Book> loaded = reader.readFromFile();
+        transferred.add(sourceBytes, loaded.size());
+        return loaded;
+    }
+
+    @Benchmark
+    public List<Book> loadStreaming(Transferred transferred) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(source), 64 * 1024)) {
+            List<Book> loaded = readArray(bookReader, in);
+            transferred.add(sourceBytes, loaded.size());
+            return loaded;
+        }
+    }
+
+    @Benchmark
+    public List<Book> loadMapped(Transferred transferred) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            List<Book> loaded = readArray(bookReader, new ByteBufferBackedInputStream(mapped));
+            transferred.add(sourceBytes, loaded.size());
+            return loaded;
+        }
+    }
+
+    @Benchmark
+    public void persistWholeFile(Transferred transferred) {
+        plainWriter.writeToFile(books);
+        transferred.add(sourceBytes, books.size());
+    }
+
+    @Benchmark
+    public void persistFragments(Transferred transferred) {
+        fragmentWriter.writeToFile(books);
+        transferred.add(sourceBytes, books.size());
+    }
+
+    @Benchmark
+    public void persistStreaming(Transferred transferred) throws IOException {
+        long written = persist(directory.resolve("streaming.json"), bookWriter, books);
+        transferred.add(written, books.size());
+    }
+
+    // Records of a top-level array, one at a time
+    static List<Book> readArray(ObjectReader reader, InputStream in) throws IOException {
+        List<Book> loaded = new ArrayList<>();
+        try (MappingIterator<Book> iterator = reader.readValues(in)) {
+            while (iterator.hasNext()) {
+                loaded.add(iterator.next());
+            }
+        }
+        return loaded;
+    }
+
+    // Temp file, fsync, move: the same durability as JsonFileHandler.writeToFile. Returns the file size
+    static long persist(Path target, ObjectWriter writer, List<Book> books) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(temp.toFile())) {
+            OutputStream out = new BufferedOutputStream(fileOut, 64 * 1024);
+            try (SequenceWriter sequence = writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .writeValuesAsArray(out)) {
+                for (Book book : books) {
+                    sequence.write(book);
+                }
+            }
+            out.flush();
+            fileOut.getFD().sync();
+        }
+        long size = Files.size(temp);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        return size;
+    }
+}
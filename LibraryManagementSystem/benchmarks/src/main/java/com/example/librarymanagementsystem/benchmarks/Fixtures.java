@@ -0,0 +1,67 @@
+package com.example.librarymanagementsystem.benchmarks;
+
+import com.example.librarymanagementsystem.model.User;
+import com.example.librarymanagementsystem.repository.impl.JsonBookRepository;
+import com.example.librarymanagementsystem.repository.impl.JsonRentalRepository;
+import com.example.librarymanagementsystem.repository.impl.JsonUserRepository;
+import com.example.librarymanagementsystem.util.CacheHelper;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.function.IntFunction;
+
+// Repositories filled with SyntheticData, built the way Spring builds them minus the metrics proxy
+// (loadInitialData is not called; records go in through saveAll/save)
+//
+// The repository constructors create empty data/*.json files below the working directory if
+// missing; existing files are neither read nor written
+public final class Fixtures {
+
+    public static final long SEED = 42;
+
+    private Fixtures() { }
+
+    public static JsonBookRepository books(int count) {
+        JsonBookRepository repository = new JsonBookRepository(new CacheHelper());
+        repository.saveAll(SyntheticData.books(count, SEED));
+        return repository;
+    }
+
+    public static JsonUserRepository users(int count) {
+        JsonUserRepository repository = new JsonUserRepository(new CacheHelper());
+        for (User user : SyntheticData.users(count, SEED)) {
+            repository.save(user);
+        }
+        return repository;
+    }
+
+    // Rentals spread over the first userCount users and bookCount books
+    public static JsonRentalRepository rentals(int count, int userCount, int bookCount) {
+        JsonRentalRepository repository = new JsonRentalRepository(new CacheHelper());
+        repository.saveAll(SyntheticData.rentals(count, userCount, bookCount, SEED));
+        return repository;
+    }
+
+    // Keys to look up, drawn once so formatting ids does not end up in the measurement
+    public static String[] sample(IntFunction<String> id, int bound, int count) {
+        Random random = new Random(SEED);
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = id.apply(random.nextInt(bound));
+        }
+        return keys;
+    }
+
+    // Per-thread position in a sample array, so threads do not contend on a shared counter
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        public <T> T next(T[] keys) {
+            T key = keys[next];
+            next = next + 1 == keys.length ? 0 : next + 1;
+            return key;
+        }
+    }
+}
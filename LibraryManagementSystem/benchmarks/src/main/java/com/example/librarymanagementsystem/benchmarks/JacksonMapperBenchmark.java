@@ -0,0 +1,84 @@
+package com.example.librarymanagementsystem.benchmarks;
+
+import com.example.librarymanagementsystem.model.Rental;
+import com.example.librarymanagementsystem.util.JsonMappers;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Shared tuned mapper (JsonMappers: Blackbird, precompiled reader/writer) against the previous setup,
+// a plain ObjectMapper + JavaTimeModule called with a TypeReference on every read and write
+// The document is a rentals.json-style list, the type with dates and the most fields
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonMapperBenchmark {
+
+    private static final TypeReference<List<Rental>> RENTAL_LIST = new TypeReference<>() { };
+
+    @Param({"1000", "100000"})
+    public int records;
+
+    private List<Rental> rentals;
+    private byte[] json;
+
+    private ObjectMapper plainMapper;
+    private ObjectReader tunedReader;
+    private ObjectWriter tunedWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        rentals = SyntheticData.rentals(records, Math.max(1, records / 10), Math.max(1, records / 2), 42);
+
+        plainMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS); // Same output as the tuned mapper
+        ObjectMapper tuned = JsonMappers.create();
+        tunedReader = tuned.readerFor(RENTAL_LIST);
+        tunedWriter = tuned.writerFor(RENTAL_LIST);
+
+        json = tunedWriter.writeValueAsBytes(rentals);
+    }
+
+    @Benchmark
+    public byte[] writePlain() throws IOException {
+        return plainMapper.writerFor(RENTAL_LIST).writeValueAsBytes(rentals);
+    }
+
+    @Benchmark
+    public byte[] writeTuned() throws IOException {
+        return tunedWriter.writeValueAsBytes(rentals);
+    }
+
+    @Benchmark
+    public List<Rental> readPlain() throws IOException {
+        return plainMapper.readValue(json, RENTAL_LIST);
+    }
+
+    @Benchmark
+    public List<Rental> readTuned() throws IOException {
+        return tunedReader.readValue(json);
+    }
+}
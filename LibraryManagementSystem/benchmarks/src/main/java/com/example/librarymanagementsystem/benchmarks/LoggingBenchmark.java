@@ -0,0 +1,168 @@
+package com.example.librarymanagementsystem.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.librarymanagementsystem.util.SampledLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Time a request thread spends logging one login, with 8 threads logging at once
+//
+// - systemOut: the previous code, four println calls on a shared autoflushing PrintStream
+// - syncStructured: one structured event written by the calling thread (plain ConsoleAppender)
+// - asyncStructured: the same event through the bounded, never-blocking AsyncAppender from logback-spring.xml
+// - sampled: SampledLogger as AuthService uses it; past 20 events/s per category an event is only counted
+//
+// The console is modelled as a sink whose every write costs sinkMicros (a write syscall to a
+// terminal or pipe); with 0 only the in-process locking and formatting remain
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"0", "20"})
+    public int sinkMicros;
+
+    private PrintStream systemOut;
+    private LoggerContext syncContext;
+    private LoggerContext asyncContext;
+    private Logger syncLogger;
+    private Logger asyncLogger;
+    private SampledLogger sampledLogger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        systemOut = new PrintStream(new BufferedOutputStream(new SlowSink(sinkMicros), 8192), true);
+
+        syncContext = context();
+        syncLogger = syncContext.getLogger("bench.sync");
+        syncLogger.addAppender(console(syncContext));
+
+        asyncContext = context();
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(asyncContext);
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.setIncludeCallerData(false);
+        async.addAppender(console(asyncContext));
+        async.start();
+        asyncLogger = asyncContext.getLogger("bench.async");
+        asyncLogger.addAppender(async);
+
+        // SampledLogger goes through SLF4J's binding; the benchmark jar has logback on its classpath
+        sampledLogger = SampledLogger.of(LoggingBenchmark.class, 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        syncContext.stop();
+        asyncContext.stop();
+    }
+
+    @Benchmark
+    public void systemOut() {
+        systemOut.println("Found user: alice");
+        systemOut.println("Stored hash: $2a$10$abcdefghijklmnopqrstuu3Yc4qKqPq9pJ6W0p1Qe0ZbY5Fh8F6dK");
+        systemOut.println("Input password: wrong-password");
+        systemOut.println("Password matches: false");
+    }
+
+    @Benchmark
+    public void syncStructured() {
+        loginFailed(syncLogger);
+    }
+
+    @Benchmark
+    public void asyncStructured() {
+        loginFailed(asyncLogger);
+    }
+
+    @Benchmark
+    public void sampled() {
+        sampledLogger.atInfo("login.failure").addKeyValue("username", "alice")
+                .addKeyValue("reason", "bad_password").log("Login failed");
+    }
+
+    private static void loginFailed(Logger logger) {
+        logger.atInfo().addKeyValue("event", "login.failure").addKeyValue("username", "alice")
+                .addKeyValue("reason", "bad_password").log("Login failed");
+    }
+
+    private static LoggerContext context() {
+        LoggerContext context = new LoggerContext();
+        // StructuredLogEncoder reads its settings from the Spring Environment, as it does at runtime
+        context.putObject(Environment.class.getName(), new StandardEnvironment());
+        context.start();
+        return context;
+    }
+
+    private Appender<ILoggingEvent> console(LoggerContext context) {
+        StructuredLogEncoder encoder = new StructuredLogEncoder();
+        encoder.setContext(context);
+        encoder.setFormat("logstash");
+        encoder.setCharset(StandardCharsets.UTF_8);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(new SlowSink(sinkMicros));
+        appender.start();
+        return appender;
+    }
+
+    // Discards everything, but every write call takes at least the given time
+    private static final class SlowSink extends OutputStream {
+        private final long nanos;
+
+        SlowSink(int micros) {
+            this.nanos = TimeUnit.MICROSECONDS.toNanos(micros);
+        }
+
+        @Override
+        public void write(int b) {
+            pause();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            pause();
+        }
+
+        private void pause() {
+            if (nanos > 0) {
+                LockSupport.parkNanos(nanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.librarymanagementsystem.benchmarks;
+
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.model.Rental;
+import com.example.librarymanagementsystem.model.User;
+import com.example.librarymanagementsystem.repository.impl.JsonBookRepository;
+import com.example.librarymanagementsystem.repository.impl.JsonRentalRepository;
+import com.example.librarymanagementsystem.repository.impl.JsonUserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Lookups, scans and writes on the three JSON repositories with `records` books, users and rentals
+//
+// - findById / existsByTitleAndAuthor: primary and secondary index lookups
+// - findByTitle, findByAuthor, findByUsername, findRentalsByUser, findActiveRentals: full scans
+// - saveBook: replaces an existing book (new snapshot, fragment invalidation, write lock)
+//
+// SingleThread and MultiThread run the same methods with 1 and 8 threads; with 8, saveBook
+// contends on the write lock while reads keep going on their snapshot.
+// Throughput by default; Baseline adds latency percentiles (-bm sample) and -prof gc allocation rates
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public abstract class RepositoryBenchmark {
+
+    // Matches ~1/256 of titles and ~1/16 of authors in SyntheticData
+    private static final String TITLE_TERM = "shadow of glass";
+    private static final String AUTHOR_TERM = "Lenason";
+    private static final int SAMPLE = 4096;
+
+    @Param({"10000", "100000", "1000000"})
+    public int records;
+
+    private JsonBookRepository books;
+    private JsonUserRepository users;
+    private JsonRentalRepository rentals;
+    private String[] bookIds;
+    private String[] userIds;
+    private Book[] savedBooks;
+    private String[] usernames;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        books = Fixtures.books(records);
+        users = Fixtures.users(records);
+        rentals = Fixtures.rentals(records, records, records);
+
+        bookIds = Fixtures.sample(SyntheticData::bookId, records, SAMPLE);
+        userIds = Fixtures.sample(SyntheticData::userId, records, SAMPLE);
+        savedBooks = new Book[SAMPLE];
+        usernames = new String[SAMPLE];
+        for (int i = 0; i < SAMPLE; i++) {
+            savedBooks[i] = books.findById(bookIds[i]).orElseThrow();
+            usernames[i] = users.findById(userIds[i]).orElseThrow().getUsername();
+        }
+    }
+
+    @Benchmark
+    public Optional<Book> findBookById(Fixtures.Cursor cursor) {
+        return books.findById(cursor.next(bookIds));
+    }
+
+    @Benchmark
+    public boolean existsByTitleAndAuthor(Fixtures.Cursor cursor) {
+        Book book = cursor.next(savedBooks);
+        return books.existsByTitleAndAuthor(book.getTitle(), book.getAuthor());
+    }
+
+    @Benchmark
+    public List<Book> findBooksByTitle() {
+        return books.findByTitleContaining(TITLE_TERM);
+    }
+
+    @Benchmark
+    public List<Book> findBooksByAuthor() {
+        return books.findByAuthorContaining(AUTHOR_TERM);
+    }
+
+    @Benchmark
+    public Book saveBook(Fixtures.Cursor cursor) {
+        return books.save(cursor.next(savedBooks));
+    }
+
+    @Benchmark
+    public Optional<User> findUserById(Fixtures.Cursor cursor) {
+        return users.findById(cursor.next(userIds));
+    }
+
+    @Benchmark
+    public Optional<User> findUserByUsername(Fixtures.Cursor cursor) {
+        return users.findByUsername(cursor.next(usernames));
+    }
+
+    @Benchmark
+    public List<Rental> findRentalsByUser(Fixtures.Cursor cursor) {
+        return rentals.findByUserId(cursor.next(userIds));
+    }
+
+    @Benchmark
+    public List<Rental> findActiveRentals() {
+        return rentals.findActiveRentals();
+    }
+
+    @Threads(1)
+    public static class SingleThread extends RepositoryBenchmark { }
+
+    @Threads(8)
+    public static class MultiThread extends RepositoryBenchmark { }
+}
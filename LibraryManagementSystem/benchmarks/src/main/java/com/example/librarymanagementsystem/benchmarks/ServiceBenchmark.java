@@ -0,0 +1,184 @@
+package com.example.librarymanagementsystem.benchmarks;
+
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.model.Rental;
+import com.example.librarymanagementsystem.model.User;
+import com.example.librarymanagementsystem.model.enums.UserRole;
+import com.example.librarymanagementsystem.repository.impl.JsonBookRepository;
+import com.example.librarymanagementsystem.repository.impl.JsonRentalRepository;
+import com.example.librarymanagementsystem.repository.impl.JsonUserRepository;
+import com.example.librarymanagementsystem.service.BookService;
+import com.example.librarymanagementsystem.service.RentalService;
+import com.example.librarymanagementsystem.util.AuthHelper;
+import com.example.librarymanagementsystem.util.CatalogVersion;
+import com.example.librarymanagementsystem.util.SignedTokenHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Service paths on top of repositories with `records` books, users and rentals
+//
+// - searchByTitle / searchByAuthor: BookService without its Spring cache, i.e. the cost of a cache miss
+// - rentAndReturn: RentalService.rentBook then returnBook; each thread uses its own user and book so
+//   every call succeeds, and the rental is deleted afterwards to keep the repository at its size
+// - currentUser*: AuthHelper.getCurrentUser for a fresh request, resolved from a cached session,
+//   from a session not cached yet (repository lookup by id), from a legacy username-only session
+//   (scan by username) and from a signed token (HMAC check plus lookup by id)
+//
+// SingleThread and MultiThread run the same methods with 1 and 8 threads
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public abstract class ServiceBenchmark {
+
+    // Users and books reserved for the calling threads, next to the synthetic ones
+    private static final int MAX_CALLERS = 64;
+    private static final AtomicInteger NEXT_CALLER = new AtomicInteger();
+    // Fixed signing key, so callers can issue tokens the benchmark's AuthHelper accepts
+    private static final String TOKEN_KEYS = "bench:" + Base64.getEncoder().encodeToString(new byte[32]);
+
+    @Param({"10000", "100000", "1000000"})
+    public int records;
+
+    private JsonRentalRepository rentals;
+    private BookService bookService;
+    private RentalService rentalService;
+    private AuthHelper sessionAuth;
+    private AuthHelper tokenAuth;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JsonBookRepository books = Fixtures.books(records);
+        JsonUserRepository users = Fixtures.users(records);
+        rentals = Fixtures.rentals(records, records, records);
+        for (int caller = 0; caller < MAX_CALLERS; caller++) {
+            users.save(Caller.user(caller));
+            books.save(Caller.book(caller));
+        }
+
+        CatalogVersion catalogVersion = new CatalogVersion();
+        bookService = new BookService(books, rentals, catalogVersion);
+        rentalService = new RentalService(rentals, books, users, catalogVersion, new SimpleMeterRegistry());
+        sessionAuth = new AuthHelper(users, new SignedTokenHelper("session", 60, ""));
+        tokenAuth = new AuthHelper(users, new SignedTokenHelper("token", 60, TOKEN_KEYS));
+    }
+
+    // One per thread: its own user and book, and requests as a logged-in browser or API client would send
+    @State(Scope.Thread)
+    public static class Caller {
+        String userId;
+        String bookId;
+        MockHttpServletRequest sessionRequest;
+        MockHttpServletRequest usernameOnlyRequest;
+        MockHttpServletRequest tokenRequest;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            int caller = NEXT_CALLER.getAndIncrement() % MAX_CALLERS;
+            User user = user(caller);
+            userId = user.getId();
+            bookId = book(caller).getId();
+
+            MockHttpSession session = new MockHttpSession();
+            session.setAttribute("userId", user.getId());
+            session.setAttribute("username", user.getUsername());
+            sessionRequest = new MockHttpServletRequest();
+            sessionRequest.setSession(session);
+
+            MockHttpSession legacySession = new MockHttpSession();
+            legacySession.setAttribute("username", user.getUsername());
+            usernameOnlyRequest = new MockHttpServletRequest();
+            usernameOnlyRequest.setSession(legacySession);
+
+            tokenRequest = new MockHttpServletRequest();
+            tokenRequest.addHeader(HttpHeaders.AUTHORIZATION,
+                    "Bearer " + new SignedTokenHelper("token", 60, TOKEN_KEYS).issue(user));
+        }
+
+        static User user(int caller) {
+            User user = new User();
+            user.setId("bench-user-" + caller);
+            user.setUsername("bench-caller-" + caller);
+            user.setEmail("bench-caller-" + caller + "@example.com");
+            user.setPasswordHash("$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchm");
+            user.setRole(UserRole.USER);
+            return user;
+        }
+
+        static Book book(int caller) {
+            return new Book("bench-book-" + caller, "The Caller of bench " + caller,
+                    "Bench Benchson", "Fiction");
+        }
+    }
+
+    @Benchmark
+    public List<Book> searchByTitle() {
+        return bookService.searchByTitle("shadow of glass");
+    }
+
+    @Benchmark
+    public List<Book> searchByAuthor() {
+        return bookService.searchByAuthor("Lenason");
+    }
+
+    @Benchmark
+    public Rental rentAndReturn(Caller caller) {
+        Rental rental = rentalService.rentBook(caller.userId, caller.bookId);
+        Rental returned = rentalService.returnBook(rental.getId(), caller.userId);
+        rentals.delete(rental.getId());
+        return returned;
+    }
+
+    @Benchmark
+    public Optional<User> currentUserCachedSession(Caller caller) {
+        caller.sessionRequest.clearAttributes(); // New request, same session
+        return sessionAuth.getCurrentUser(caller.sessionRequest);
+    }
+
+    @Benchmark
+    public Optional<User> currentUserUncachedSession(Caller caller) {
+        sessionAuth.evictSession(caller.sessionRequest); // Also clears the per-request memo
+        return sessionAuth.getCurrentUser(caller.sessionRequest);
+    }
+
+    @Benchmark
+    public Optional<User> currentUserUsernameOnlySession(Caller caller) {
+        sessionAuth.evictSession(caller.usernameOnlyRequest);
+        return sessionAuth.getCurrentUser(caller.usernameOnlyRequest);
+    }
+
+    @Benchmark
+    public Optional<User> currentUserToken(Caller caller) {
+        caller.tokenRequest.clearAttributes();
+        return tokenAuth.getCurrentUser(caller.tokenRequest);
+    }
+
+    @Threads(1)
+    public static class SingleThread extends ServiceBenchmark { }
+
+    @Threads(8)
+    public static class MultiThread extends ServiceBenchmark { }
+}
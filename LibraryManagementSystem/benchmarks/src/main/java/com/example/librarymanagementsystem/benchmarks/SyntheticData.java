@@ -0,0 +1,89 @@
+package com.example.librarymanagementsystem.benchmarks;
+
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.model.Rental;
+import com.example.librarymanagementsystem.model.User;
+import com.example.librarymanagementsystem.model.enums.BookStatus;
+import com.example.librarymanagementsystem.model.enums.RentalStatus;
+import com.example.librarymanagementsystem.model.enums.UserRole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Reproducible test data for benchmarks: the same seed always gives the same records,
+// so runs on different machines (or before/after a change) compare like with like
+public final class SyntheticData {
+
+    private static final String[] GENRES = {"Fiction", "Sci-Fi", "Fantasy", "History", "Science", "Poetry", "Crime"};
+    private static final String[] WORDS = {"silent", "river", "shadow", "garden", "empire", "winter", "glass",
+            "stone", "letters", "north", "machine", "ocean", "memory", "fire", "city", "night"};
+    private static final String[] NAMES = {"Ada", "Ben", "Chloe", "Dmitri", "Elena", "Farid", "Grace", "Hiro",
+            "Ines", "Jonas", "Kemal", "Lena", "Mateo", "Nora", "Omar", "Priya"};
+
+    private SyntheticData() { }
+
+    // Books with ids "book-0000000".."book-(n-1)"; every fifth book is rented
+    public static List<Book> books(int count, long seed) {
+        Random random = new Random(seed);
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Book book = new Book(bookId(i), title(random), author(random), GENRES[random.nextInt(GENRES.length)]);
+            if (i % 5 == 0) {
+                book.setStatus(BookStatus.RENTED);
+            }
+            books.add(book);
+        }
+        return books;
+    }
+
+    // Users with ids "user-0000000"..; password hashes are fixed strings (no BCrypt cost here)
+    public static List<User> users(int count, long seed) {
+        Random random = new Random(seed);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setId(userId(i));
+            user.setUsername(NAMES[random.nextInt(NAMES.length)].toLowerCase() + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPasswordHash("$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchm");
+            user.setRole(i == 0 ? UserRole.ADMIN : UserRole.USER);
+            users.add(user);
+        }
+        return users;
+    }
+
+    // Rentals spread over the given users and books; about a third are still active
+    public static List<Rental> rentals(int count, int userCount, int bookCount, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 9, 0);
+        List<Rental> rentals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Rental rental = new Rental(rentalId(i), userId(random.nextInt(userCount)), bookId(random.nextInt(bookCount)));
+            rental.setRentDate(base.plusMinutes(i));
+            if (i % 3 != 0) {
+                rental.setStatus(RentalStatus.CLOSED);
+                rental.setReturnDate(base.plusMinutes(i).plusDays(1 + random.nextInt(20)));
+            }
+            rentals.add(rental);
+        }
+        return rentals;
+    }
+
+    public static String bookId(int i) { return String.format("book-%07d", i); }
+
+    public static String userId(int i) { return String.format("user-%07d", i); }
+
+    public static String rentalId(int i) { return String.format("rental-%07d", i); }
+
+    private static String title(Random random) {
+        String first = WORDS[random.nextInt(WORDS.length)];
+        String second = WORDS[random.nextInt(WORDS.length)];
+        return "The " + Character.toUpperCase(first.charAt(0)) + first.substring(1) + " of " + second;
+    }
+
+    private static String author(Random random) {
+        return NAMES[random.nextInt(NAMES.length)] + " " + NAMES[random.nextInt(NAMES.length)] + "son";
+    }
+}
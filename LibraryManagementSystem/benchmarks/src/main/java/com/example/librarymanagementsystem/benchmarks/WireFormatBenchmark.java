@@ -0,0 +1,72 @@
+package com.example.librarymanagementsystem.benchmarks;
+
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.model.dto.PagedResponse;
+import com.example.librarymanagementsystem.util.JsonMappers;
+import com.example.librarymanagementsystem.util.WireFormats;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// JSON vs CBOR vs Smile for a catalog page (GET /books) and its request-side decoding
+// Run with -prof gc to see bytes allocated per operation; the encoded size of each page
+// is printed once per trial so size and CPU can be compared side by side
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<PagedResponse<Book>> PAGE_TYPE = new TypeReference<>() { };
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    public WireFormats.Format format;
+
+    @Param({"20", "100", "1000"})
+    public int pageSize;
+
+    private PagedResponse<Book> page;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Same Jackson settings the application uses
+        WireFormats wireFormats = new WireFormats(JsonMappers.create());
+        writer = wireFormats.mapper(format).writerFor(PAGE_TYPE);
+        reader = wireFormats.mapper(format).readerFor(PAGE_TYPE);
+
+        page = new PagedResponse<>(SyntheticData.books(pageSize, 42), 0, pageSize, 100_000);
+        encoded = writer.writeValueAsBytes(page);
+        System.out.printf("%n%s page of %d books: %d bytes (%.1f bytes/book)%n",
+                format, pageSize, encoded.length, encoded.length / (double) pageSize);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PagedResponse<Book> deserialize() throws IOException {
+        return reader.readValue(encoded);
+    }
+}
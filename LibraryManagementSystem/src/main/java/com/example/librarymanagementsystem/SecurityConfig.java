@@ -8,14 +8,17 @@
  */
 package com.example.librarymanagementsystem;
 
+import com.example.librarymanagementsystem.util.BoundedPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -37,6 +40,10 @@ public class SecurityConfig {
                                 "/swagger-resources/**",
                                 "/webjars/**",
                                 "/actuator/health",
+                                "/actuator/health/**",
+                                "/livez",
+                                "/readyz",
+                                "/actuator/prometheus",
                                 "/health",
                                 "/api/auth/**",
                                 "/auth/**",
@@ -55,10 +62,18 @@ public class SecurityConfig {
 
     /**
      * Password encoder for secure password hashing
-     * BCrypt with strength 10 provides good security/performance balance
+     * BCrypt (strength 10 by default) runs on a dedicated pool sized to the CPU cores,
+     * so a burst of logins cannot tie up every request thread.
+     * Raising app.security.bcrypt-strength re-hashes users transparently on their next login.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(10);
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.security.bcrypt-strength:10}") int strength,
+            @Value("${app.security.hashing.threads:0}") int threads,
+            @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.hashing.timeout-ms:5000}") long timeoutMs) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(strength), poolSize, queueCapacity, Duration.ofMillis(timeoutMs));
     }
 }
\ No newline at end of file
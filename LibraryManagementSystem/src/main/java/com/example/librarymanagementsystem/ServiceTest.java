@@ -12,7 +12,9 @@ import com.example.librarymanagementsystem.service.AuthService;
 import com.example.librarymanagementsystem.service.BookService;
 import com.example.librarymanagementsystem.service.RentalService;
 import com.example.librarymanagementsystem.util.ValidationHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import com.example.librarymanagementsystem.util.CacheHelper;
+import com.example.librarymanagementsystem.util.CatalogVersion;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.util.Optional;
@@ -34,9 +36,11 @@ public class ServiceTest {
 
         // Create service instances with dependency injection
         BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-        AuthService authService = new AuthService(userRepo, validationHelper, passwordEncoder);
-        BookService bookService = new BookService(bookRepo, rentalRepo);
-        RentalService rentalService = new RentalService(rentalRepo, bookRepo, userRepo);
+        CatalogVersion catalogVersion = new CatalogVersion();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuthService authService = new AuthService(userRepo, validationHelper, passwordEncoder, meterRegistry);
+        BookService bookService = new BookService(bookRepo, rentalRepo, catalogVersion);
+        RentalService rentalService = new RentalService(rentalRepo, bookRepo, userRepo, catalogVersion, meterRegistry);
 
         // Test AuthService - login with default admin
         System.out.println("\n--- Testing AuthService ---");
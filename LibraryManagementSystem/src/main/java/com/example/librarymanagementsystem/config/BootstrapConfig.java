@@ -1,5 +1,7 @@
 package com.example.librarymanagementsystem.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,6 +14,8 @@ import com.example.librarymanagementsystem.repository.UserRepository;
 @Configuration
 public class BootstrapConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(BootstrapConfig.class);
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
 
@@ -35,7 +39,7 @@ public class BootstrapConfig {
                 u.setPasswordHash(passwordEncoder.encode(rawPassword));
                 u.setRole(UserRole.ADMIN);                // <-- enum, not string
                 userRepository.save(u);
-                System.out.println(">> Seeded default admin/admin123");
+                log.info("Seeded default admin user '{}'", username);
             }
         };
     }
@@ -0,0 +1,20 @@
+package com.example.librarymanagementsystem.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns on Spring's @Cacheable support.
+ *
+ * The cache manager itself is auto-configured from application.properties
+ * (spring.cache.type=caffeine, spring.cache.cache-names, spring.cache.caffeine.spec).
+ *
+ * Cache names:
+ *  - books        : Book by id            (BookService.findById)
+ *  - bookSearches : title/author searches (BookService.searchByTitle / searchByAuthor)
+ *  - users        : User by id            (UserService.findById)
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
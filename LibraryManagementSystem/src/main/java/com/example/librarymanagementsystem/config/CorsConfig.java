@@ -57,7 +57,7 @@ public class CorsConfig {
         cfg.setAllowedMethods(List.of("GET","POST","PUT","DELETE","OPTIONS"));
         cfg.setAllowedHeaders(List.of("*"));
         cfg.setAllowCredentials(true);                     // <—
-        cfg.setExposedHeaders(List.of("Set-Cookie"));      // helpful for debugging
+        cfg.setExposedHeaders(List.of("Set-Cookie", "ETag")); // Set-Cookie helps debugging; ETag for conditional GETs
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", cfg);
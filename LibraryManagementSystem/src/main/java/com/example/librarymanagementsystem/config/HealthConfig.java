@@ -0,0 +1,161 @@
+package com.example.librarymanagementsystem.config;
+
+import com.example.librarymanagementsystem.repository.BookRepository;
+import com.example.librarymanagementsystem.repository.RentalRepository;
+import com.example.librarymanagementsystem.repository.UserRepository;
+import com.example.librarymanagementsystem.repository.impl.FileSessionRepository;
+import com.example.librarymanagementsystem.util.JsonFileHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Readiness checks for the load balancer.
+ *
+ * Liveness (/livez) only reflects the application's own liveness state, so a slow or loaded
+ * instance is never restarted for it. Readiness (/readyz) also requires these checks
+ * (group configured in application.properties):
+ * - repositories: every data file finished loading without falling back to an empty store
+ * - persistence: no failed data file write; the session log (app.session.store=file) flushes
+ *   regularly, with its backlog and lag within bounds
+ * - heap: enough heap left after the last collection
+ *
+ * Failures report DOWN, overload OUT_OF_SERVICE; both answer 503. Every check adds its own
+ * durationMs so a slow probe can be traced to the check causing it. The probes are anonymous,
+ * so they only return the status (show-details=never); the details are served to admins by
+ * GET /admin/health (HealthController).
+ */
+@Configuration
+public class HealthConfig {
+
+    @Bean
+    public HealthIndicator repositoriesHealthIndicator(BookRepository bookRepository, UserRepository userRepository,
+                                                       RentalRepository rentalRepository) {
+        return timed(health -> {
+            for (JsonFileHandler.Status file : dataFiles(bookRepository, userRepository, rentalRepository)) {
+                Map<String, Object> detail = new LinkedHashMap<>();
+                detail.put("loaded", file.loaded());
+                detail.put("records", file.records());
+                detail.put("loadMs", file.loadMillis());
+                if (file.loadError() != null) {
+                    detail.put("error", file.loadError());
+                }
+                health.withDetail(file.file(), detail);
+                if (!file.loaded() || file.loadError() != null) {
+                    health.down();
+                }
+            }
+        });
+    }
+
+    @Bean
+    public HealthIndicator persistenceHealthIndicator(
+            BookRepository bookRepository, UserRepository userRepository, RentalRepository rentalRepository,
+            ObjectProvider<FileSessionRepository> sessionRepository,
+            @Value("${app.health.max-flush-age-seconds:30}") long maxFlushAgeSeconds,
+            @Value("${app.health.max-pending-writes:10000}") int maxPendingWrites) {
+        Duration maxFlushAge = Duration.ofSeconds(maxFlushAgeSeconds);
+        return timed(health -> {
+            boolean failed = false;
+            for (JsonFileHandler.Status file : dataFiles(bookRepository, userRepository, rentalRepository)) {
+                if (file.lastWriteError() != null) {
+                    health.withDetail(file.file(), Map.of("writeError", file.lastWriteError()));
+                    failed = true;
+                }
+            }
+
+            FileSessionRepository sessions = sessionRepository.getIfAvailable();
+            if (sessions == null) {
+                if (failed) {
+                    health.down();
+                }
+                return; // Sessions live in Tomcat's memory, nothing to flush
+            }
+            Instant now = Instant.now();
+            Duration flushAge = Duration.between(sessions.lastFlushAt(), now);
+            Instant oldestPending = sessions.oldestPendingAt();
+            Duration lag = oldestPending != null ? Duration.between(oldestPending, now) : Duration.ZERO;
+            int pending = sessions.pendingWrites();
+
+            Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("pendingWrites", pending);
+            detail.put("lagMs", lag.toMillis());
+            detail.put("lastFlushAgeMs", flushAge.toMillis());
+            if (sessions.lastFlushError() != null) {
+                detail.put("error", sessions.lastFlushError());
+            }
+            health.withDetail("sessions", detail);
+
+            failed |= sessions.lastFlushError() != null || flushAge.compareTo(maxFlushAge) > 0
+                    || lag.compareTo(maxFlushAge) > 0;
+            if (failed) {
+                health.down();
+            } else if (pending > maxPendingWrites) {
+                health.outOfService();
+            }
+        });
+    }
+
+    @Bean
+    public HealthIndicator heapHealthIndicator(@Value("${app.health.min-heap-free-percent:10}") int minFreePercent) {
+        return timed(health -> {
+            MemoryUsage usage = heapAfterLastGc();
+            long max = usage.getMax() > 0 ? usage.getMax() : Runtime.getRuntime().maxMemory();
+            double freePercent = 100.0 * (max - usage.getUsed()) / max;
+            health.withDetail("usedBytes", usage.getUsed())
+                    .withDetail("maxBytes", max)
+                    .withDetail("freePercent", Math.round(freePercent * 10) / 10.0);
+            if (freePercent < minFreePercent) {
+                health.outOfService();
+            }
+        });
+    }
+
+    private static JsonFileHandler.Status[] dataFiles(BookRepository books, UserRepository users,
+                                                      RentalRepository rentals) {
+        return new JsonFileHandler.Status[] {books.fileStatus(), users.fileStatus(), rentals.fileStatus()};
+    }
+
+    // Old generation as the last GC left it: live data, without garbage that is about to be collected.
+    // Falls back to the whole heap right now when the collector reports no such pool (or none ran yet)
+    private static MemoryUsage heapAfterLastGc() {
+        MemoryUsage largest = null;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage afterGc = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+            if (afterGc != null && afterGc.getMax() > 0 && afterGc.getUsed() > 0
+                    && (largest == null || afterGc.getMax() > largest.getMax())) {
+                largest = afterGc;
+            }
+        }
+        return largest != null ? largest : ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    }
+
+    // Starts UP; the check lowers the status and adds details. An exception turns into DOWN
+    private static HealthIndicator timed(Consumer<Health.Builder> check) {
+        return () -> {
+            long start = System.nanoTime();
+            Health.Builder health = Health.status(Status.UP);
+            try {
+                check.accept(health);
+            } catch (RuntimeException e) {
+                health.down(e);
+            }
+            return health.withDetail("durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).build();
+        };
+    }
+}
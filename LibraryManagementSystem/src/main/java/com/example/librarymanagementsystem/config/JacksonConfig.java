@@ -0,0 +1,25 @@
+package com.example.librarymanagementsystem.config;
+
+import com.example.librarymanagementsystem.util.JsonMappers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Makes the shared {@link JsonMappers} instance Spring's ObjectMapper.
+ *
+ * HTTP message converters, field projections and the binary formats then use the same
+ * mapper (and its serializer caches) as the JSON data files and import/export.
+ * Spring Boot's own mapper backs off when this bean exists, so the Jackson settings
+ * live in JsonMappers rather than in spring.jackson.* properties.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    @Primary
+    public ObjectMapper objectMapper() {
+        return JsonMappers.shared();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.librarymanagementsystem.config;
+
+import com.example.librarymanagementsystem.repository.BookRepository;
+import com.example.librarymanagementsystem.repository.RentalRepository;
+import com.example.librarymanagementsystem.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation that is not tied to a single class.
+ *
+ * Every BookRepository, UserRepository and RentalRepository bean is wrapped in a proxy that
+ * times each interface method as "library.repository" (tags: repository, method, exception),
+ * with p50/p95/p99 and a histogram for Prometheus. Callers inject the interfaces, so the proxy
+ * is transparent; repositories created with new (tests, benchmarks) are not timed.
+ *
+ * Other meters are registered where they are produced: CacheHelper (MeterBinder),
+ * JsonFileHandler (file reads and writes), RentalService and AuthService (business counters).
+ * Everything is scraped from /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final List<Class<?>> TIMED_REPOSITORIES =
+            List.of(BookRepository.class, UserRepository.class, RentalRepository.class);
+
+    // Static: post-processors are created before regular beans; the registry is resolved on first call
+    @Bean
+    public static BeanPostProcessor repositoryTimers(ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                List<Class<?>> interfaces = new ArrayList<>();
+                for (Class<?> type : TIMED_REPOSITORIES) {
+                    if (type.isInstance(bean)) {
+                        interfaces.add(type);
+                    }
+                }
+                if (interfaces.isEmpty()) {
+                    return bean;
+                }
+                return Proxy.newProxyInstance(bean.getClass().getClassLoader(), interfaces.toArray(Class<?>[]::new),
+                        new TimedRepository(bean, interfaces.get(0).getSimpleName(), registry));
+            }
+        };
+    }
+
+    private static final class TimedRepository implements InvocationHandler {
+
+        private final Object target;
+        private final String repository;
+        private final ObjectProvider<MeterRegistry> registry;
+        // Timer lookup by method and outcome, so a call does not build tags
+        private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+        TimedRepository(Object target, String repository, ObjectProvider<MeterRegistry> registry) {
+            this.target = target;
+            this.repository = repository;
+            this.registry = registry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(target, args); // equals/hashCode/toString
+            }
+            long start = System.nanoTime();
+            String exception = "none";
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                exception = e.getCause().getClass().getSimpleName();
+                throw e.getCause();
+            } finally {
+                timer(method.getName(), exception).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private Timer timer(String method, String exception) {
+            return timers.computeIfAbsent(method + ':' + exception, key -> Timer.builder("library.repository")
+                    .description("Repository method duration")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .tag("exception", exception)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(registry.getObject()));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.librarymanagementsystem.config;
+
+import com.example.librarymanagementsystem.util.RequestTimings;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Wires {@link RequestTimings} into the request path.
+ *
+ * A filter ahead of everything else (including Spring Security) times each request and files
+ * it under its handler pattern, e.g. "POST /books/{id}/rent". Every @Service bean gets an advisor
+ * that marks its methods as the SERVICE phase; it joins the existing proxy of beans that are
+ * already advised (caching), so no bean is proxied twice.
+ *
+ * Streamed responses (catalog export) are timed until the stream is handed to the container.
+ */
+@Configuration
+public class RequestTimingConfig {
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> requestTimingFilter(RequestTimings requestTimings) {
+        OncePerRequestFilter filter = new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain chain) throws ServletException, IOException {
+                requestTimings.begin();
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    // Set by Spring MVC once a handler matched; null for 404s and static resources
+                    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    requestTimings.end(request.getMethod(), pattern instanceof String p ? p : null,
+                            response.getStatus());
+                }
+            }
+        };
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    // Static: post-processors are instantiated before the beans they advise
+    @Bean
+    public static ServiceTimingPostProcessor serviceTimingPostProcessor() {
+        return new ServiceTimingPostProcessor();
+    }
+
+    static final class ServiceTimingPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+        ServiceTimingPostProcessor() {
+            MethodInterceptor timing = invocation -> {
+                try (RequestTimings.Scope ignored = RequestTimings.phase(RequestTimings.Phase.SERVICE)) {
+                    return invocation.proceed();
+                }
+            };
+            this.advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Service.class, true), timing);
+            this.beforeExistingAdvisors = true; // Cache hits count as service time too
+            setProxyTargetClass(true); // Services are classes without interfaces
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.librarymanagementsystem.config;
+
+import com.example.librarymanagementsystem.repository.impl.FileSessionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Keeps HttpSessions in a local append-only file instead of Tomcat's memory.
+ *
+ * Enabled with app.session.store=file. After a redeploy, existing session cookies
+ * are resolved from disk on first use, so users are not sent back through /auth/login
+ * (and BCrypt) all at once. The session cookie keeps the server.servlet.session.cookie.*
+ * settings.
+ */
+@Configuration
+@EnableSpringHttpSession
+@ConditionalOnProperty(name = "app.session.store", havingValue = "file")
+public class SessionConfig {
+
+    @Bean
+    public FileSessionRepository sessionRepository(
+            @Value("${app.session.file:data/sessions.log}") String file,
+            @Value("${server.servlet.session.timeout:30m}") Duration timeout,
+            @Value("${app.session.flush-interval-ms:1000}") long flushIntervalMs,
+            @Value("${app.session.sweep-interval-ms:60000}") long sweepIntervalMs) throws IOException {
+        return new FileSessionRepository(Path.of(file), timeout,
+                Duration.ofMillis(flushIntervalMs), Duration.ofMillis(sweepIntervalMs));
+    }
+}
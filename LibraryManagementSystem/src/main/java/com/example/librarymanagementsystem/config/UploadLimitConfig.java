@@ -0,0 +1,80 @@
+package com.example.librarymanagementsystem.config;
+
+import com.example.librarymanagementsystem.util.AuthHelper;
+import com.example.librarymanagementsystem.util.JsonMappers;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Keeps multipart bodies from reaching the disk unless they are wanted.
+ *
+ * The container limits (spring.servlet.multipart.*) are sized for catalog imports, the only
+ * endpoint taking files. Multipart is resolved lazily, and this filter runs before anything
+ * reads the body, but after Spring Session (app.session.store=file) so the admin check sees
+ * the session the login created:
+ * - POST /admin/import: the caller must be an admin, otherwise 403 without reading the upload
+ * - anything else: the declared Content-Length must be within app.upload.max-request-size,
+ *   otherwise 413 (a body without a length counts as too large)
+ */
+@Configuration
+public class UploadLimitConfig {
+
+    static final String IMPORT_PATH = "/admin/import";
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> uploadLimitFilter(
+            AuthHelper authHelper,
+            @Value("${app.upload.max-request-size:10MB}") DataSize maxRequestSize) {
+        OncePerRequestFilter filter = new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain chain) throws ServletException, IOException {
+                String contentType = request.getContentType();
+                if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/")) {
+                    chain.doFilter(request, response);
+                    return;
+                }
+
+                if (IMPORT_PATH.equals(request.getServletPath())) {
+                    if (!authHelper.isAdmin(request)) {
+                        reject(response, 403, "Admin access required");
+                        return;
+                    }
+                } else {
+                    long length = request.getContentLengthLong();
+                    if (length < 0 || length > maxRequestSize.toBytes()) {
+                        reject(response, 413, "Multipart request exceeds " + maxRequestSize);
+                        return;
+                    }
+                }
+                chain.doFilter(request, response);
+            }
+        };
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(filter);
+        // Earlier, getSession() would be Tomcat's (empty) session and the cached current user Optional.empty()
+        registration.setOrder(SessionRepositoryFilter.DEFAULT_ORDER + 1);
+        return registration;
+    }
+
+    private static void reject(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        // Tomcat would otherwise keep reading the unread body to reuse the connection
+        response.setHeader("Connection", "close");
+        JsonMappers.shared().writeValue(response.getOutputStream(), Map.of("error", message));
+    }
+}
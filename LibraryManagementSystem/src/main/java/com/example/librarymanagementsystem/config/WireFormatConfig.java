@@ -0,0 +1,84 @@
+package com.example.librarymanagementsystem.config;
+
+import com.example.librarymanagementsystem.util.RequestTimings;
+import com.example.librarymanagementsystem.util.WireFormats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Registers binary Jackson message converters next to the JSON one.
+ *
+ * Clients sending Accept: application/cbor or application/x-jackson-smile get responses
+ * in that format, and request bodies with those content types are read the same way.
+ * JSON stays first in the list, so browsers and clients with a wildcard Accept header still get JSON.
+ *
+ * Endpoints that write pre-serialized bytes (catalog pages, field projections) pick the
+ * format themselves with WireFormats.negotiate.
+ *
+ * All three converters time their writes as the request's SERIALIZATION phase (RequestTimings).
+ */
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    private final WireFormats wireFormats;
+
+    public WireFormatConfig(WireFormats wireFormats) {
+        this.wireFormats = wireFormats;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Spring adds default binary converters when the dataformats are on the classpath;
+        // replace them with ones sharing the application's Jackson settings
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.replaceAll(converter -> converter instanceof MappingJackson2HttpMessageConverter
+                ? timedJson(wireFormats.mapper(WireFormats.Format.JSON))
+                : converter);
+        converters.add(timedCbor(wireFormats.mapper(WireFormats.Format.CBOR)));
+        converters.add(timedSmile(wireFormats.mapper(WireFormats.Format.SMILE)));
+    }
+
+    private static MappingJackson2HttpMessageConverter timedJson(ObjectMapper mapper) {
+        return new MappingJackson2HttpMessageConverter(mapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                try (RequestTimings.Scope ignored = RequestTimings.phase(RequestTimings.Phase.SERIALIZATION)) {
+                    super.writeInternal(object, type, outputMessage);
+                }
+            }
+        };
+    }
+
+    private static MappingJackson2CborHttpMessageConverter timedCbor(ObjectMapper mapper) {
+        return new MappingJackson2CborHttpMessageConverter(mapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                try (RequestTimings.Scope ignored = RequestTimings.phase(RequestTimings.Phase.SERIALIZATION)) {
+                    super.writeInternal(object, type, outputMessage);
+                }
+            }
+        };
+    }
+
+    private static MappingJackson2SmileHttpMessageConverter timedSmile(ObjectMapper mapper) {
+        return new MappingJackson2SmileHttpMessageConverter(mapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                try (RequestTimings.Scope ignored = RequestTimings.phase(RequestTimings.Phase.SERIALIZATION)) {
+                    super.writeInternal(object, type, outputMessage);
+                }
+            }
+        };
+    }
+}
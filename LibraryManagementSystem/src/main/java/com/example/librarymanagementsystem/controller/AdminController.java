@@ -1,11 +1,22 @@
 package com.example.librarymanagementsystem.controller;
 
 import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.model.dto.ImportJobStatus;
 import com.example.librarymanagementsystem.model.dto.ImportSummary;
+import com.example.librarymanagementsystem.service.BookImportService;
 import com.example.librarymanagementsystem.service.BookService;
+import com.example.librarymanagementsystem.service.FlightRecordingService;
+import com.example.librarymanagementsystem.service.ImportJobService;
 import com.example.librarymanagementsystem.util.AuthHelper;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.example.librarymanagementsystem.util.FragmentCache;
+import com.example.librarymanagementsystem.util.RequestTimings;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -16,13 +27,21 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 // @Tag groups admin-only endpoints in Swagger UI
 @Tag(name = "Admin", description = "Administrative operations (Admin access required)")
@@ -30,64 +49,177 @@ import java.util.Map;
 @RequestMapping("/admin")
 public class AdminController {
 
+    // Column order for CSV export and import
+    private static final CsvSchema BOOK_CSV_SCHEMA = CsvSchema.builder()
+            .addColumn("id")
+            .addColumn("title")
+            .addColumn("author")
+            .addColumn("genre")
+            .addColumn("status")
+            .build()
+            .withHeader();
+
+    // Supported export formats
+    private enum ExportFormat {
+        JSON("json", MediaType.APPLICATION_JSON),
+        NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson")),
+        CSV("csv", MediaType.parseMediaType("text/csv"));
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        ExportFormat(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+
+        static ExportFormat parse(String value) {
+            for (ExportFormat format : values()) {
+                if (format.extension.equalsIgnoreCase(value.trim())) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final ImportJobService importJobService;
     private final AuthHelper authHelper;
     private final ObjectMapper objectMapper;
-
-    public AdminController(BookService bookService, AuthHelper authHelper) {
+    private final RequestTimings requestTimings;
+    private final FlightRecordingService flightRecordingService;
+    // CSV export writer, configured once: no flush per book, and the target (maybe a gzip stream) stays open
+    private final ObjectWriter csvBookWriter;
+
+    public AdminController(BookService bookService, BookImportService bookImportService,
+                           ImportJobService importJobService, AuthHelper authHelper, ObjectMapper objectMapper,
+                           RequestTimings requestTimings, FlightRecordingService flightRecordingService) {
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
+        this.importJobService = importJobService;
         this.authHelper = authHelper;
-        this.objectMapper = new ObjectMapper();
+        this.objectMapper = objectMapper;
+        this.requestTimings = requestTimings;
+        this.flightRecordingService = flightRecordingService;
+        this.csvBookWriter = streamingWriter(new CsvMapper().writerFor(Book.class).with(BOOK_CSV_SCHEMA));
     }
 
     @Operation(
             summary = "Export book catalog",
-            description = "Download complete book catalog as JSON file with timestamp"
+            description = "Stream the complete book catalog as a timestamped JSON, NDJSON or CSV file, optionally gzipped"
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Export successful - JSON file download"),
+            @ApiResponse(responseCode = "200", description = "Export successful - file download"),
+            @ApiResponse(responseCode = "400", description = "Unknown export format"),
             @ApiResponse(responseCode = "403", description = "Admin access required"),
             @ApiResponse(responseCode = "500", description = "Export failed")
     })
     @GetMapping("/export")
-    public ResponseEntity<?> exportBooks(HttpServletRequest request) {
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @Parameter(description = "Output format: json (array), ndjson (one book per line) or csv")
+            @RequestParam(defaultValue = "json") String format,
+            @Parameter(description = "Compress the file with gzip")
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletRequest request) {
         try {
             if (!authHelper.isAdmin(request)) {
-                return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
+                return errorResponse(403, "Admin access required");
             }
 
-            List<Book> allBooks = bookService.getAllBooks();
-            String jsonContent = objectMapper.writeValueAsString(allBooks);
+            ExportFormat exportFormat = ExportFormat.parse(format);
+            if (exportFormat == null) {
+                return errorResponse(400, "Format must be json, ndjson or csv");
+            }
+
+            // Snapshot taken now; books are serialized one at a time while the response is written
+            Iterator<Book> books = bookService.iterateAllBooks();
 
             // Create timestamped filename
             String timestamp = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            String filename = "library_export_" + timestamp + ".json";
+            String filename = "library_export_" + timestamp + "." + exportFormat.extension + (gzip ? ".gz" : "");
+
+            StreamingResponseBody body = out -> {
+                OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+                writeBooks(books, exportFormat, target);
+                if (target instanceof GZIPOutputStream gzipOut) {
+                    gzipOut.finish();
+                }
+                target.flush();
+            };
 
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(jsonContent);
+                    .contentType(gzip ? MediaType.parseMediaType("application/gzip") : exportFormat.mediaType)
+                    .body(body);
 
         } catch (Exception e) {
-            return ResponseEntity.status(500).body(Map.of("error", "Export failed: " + e.getMessage()));
+            return errorResponse(500, "Export failed: " + e.getMessage());
         }
     }
 
+    // Write every book as it is reached; memory use does not grow with the catalog
+    // JSON and NDJSON copy each book's cached JSON, so only books changed since they were last
+    // served or exported are serialized again
+    private void writeBooks(Iterator<Book> books, ExportFormat format, OutputStream out) throws IOException {
+        if (format == ExportFormat.CSV) {
+            try (SequenceWriter sequence = csvBookWriter.writeValues(out)) {
+                while (books.hasNext()) {
+                    sequence.write(books.next());
+                }
+            }
+            return;
+        }
+
+        // Fragments and separators are small writes; batch them before they reach gzip or the socket
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        if (format == ExportFormat.JSON) {
+            FragmentCache.writeArray(books, bookService::serialized, buffered);
+        } else {
+            while (books.hasNext()) {
+                buffered.write(bookService.serialized(books.next()));
+                buffered.write('\n');
+            }
+        }
+        buffered.flush();
+    }
+
+    private static ObjectWriter streamingWriter(ObjectWriter writer) {
+        return writer
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // gzip trailer still has to follow
+    }
+
+    // Small JSON error for endpoints whose success body is a stream
+    private ResponseEntity<StreamingResponseBody> errorResponse(int status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, Map.of("error", message)));
+    }
+
     @Operation(
             summary = "Import books from file",
-            description = "Upload JSON file to import books (append-only, skips duplicates)"
+            description = "Upload a JSON array, NDJSON or CSV file to import books (append-only, skips duplicates). "
+                    + "The file is streamed row by row, up to spring.servlet.multipart.max-file-size (2GB)"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Import completed with summary"),
+            @ApiResponse(responseCode = "202", description = "Import job queued (async=true)"),
             @ApiResponse(responseCode = "400", description = "Invalid file or format"),
             @ApiResponse(responseCode = "403", description = "Admin access required"),
-            @ApiResponse(responseCode = "413", description = "File size exceeds 10MB limit"),
-            @ApiResponse(responseCode = "422", description = "Invalid JSON format")
+            @ApiResponse(responseCode = "413", description = "Upload larger than the configured limit"),
+            @ApiResponse(responseCode = "422", description = "File content is not valid JSON, NDJSON or CSV"),
+            @ApiResponse(responseCode = "503", description = "Import job queue is full, retry later")
     })
     @PostMapping("/import")
     public ResponseEntity<?> importBooks(
-            @Parameter(description = "JSON file containing book data (max 10MB)")
+            @Parameter(description = "File with title, author and genre per book (JSON array, NDJSON or CSV with header)")
             @RequestParam("file") MultipartFile file,
+            @Parameter(description = "json, ndjson or csv; detected from the file name or content type when omitted")
+            @RequestParam(required = false) String format,
+            @Parameter(description = "Run as a background job and return its id immediately")
+            @RequestParam(defaultValue = "false") boolean async,
             HttpServletRequest request) {
         try {
             if (!authHelper.isAdmin(request)) {
@@ -99,58 +231,38 @@ public class AdminController {
                 return ResponseEntity.status(400).body(Map.of("error", "File is required"));
             }
 
-            if (file.getSize() > 10 * 1024 * 1024) {
-                return ResponseEntity.status(400).body(Map.of("error", "File size exceeds 10MB limit"));
+            BookImportService.Format importFormat = BookImportService.Format.detect(
+                    format, file.getOriginalFilename(), file.getContentType());
+            if (importFormat == null) {
+                return ResponseEntity.status(400).body(Map.of("error", "File must be JSON, NDJSON or CSV format"));
             }
 
-            if (!file.getContentType().equals("application/json")) {
-                return ResponseEntity.status(400).body(Map.of("error", "File must be JSON format"));
-            }
-
-            // Parse JSON file
-            List<Map<String, String>> importedBooks;
-            try {
-                String jsonContent = new String(file.getBytes());
-                importedBooks = objectMapper.readValue(jsonContent, new TypeReference<List<Map<String, String>>>() {});
-            } catch (Exception e) {
-                return ResponseEntity.status(422).body(Map.of("error", "Invalid JSON format: " + e.getMessage()));
-            }
-
-            // Process imported books
-            int added = 0;
-            int skipped = 0;
-            List<String> errors = new ArrayList<>();
-
-            for (int i = 0; i < importedBooks.size(); i++) {
-                Map<String, String> bookData = importedBooks.get(i);
-
+            if (async) {
+                // The upload is deleted when this request ends, so the job gets its own copy
+                Path upload = Files.createTempFile("book-import-", "." + importFormat.name().toLowerCase());
+                file.transferTo(upload.toFile());
                 try {
-                    String title = bookData.get("title");
-                    String author = bookData.get("author");
-                    String genre = bookData.get("genre");
-
-                    if (title == null || title.trim().isEmpty()) {
-                        errors.add("Row " + (i + 1) + ": Missing title field");
-                        continue;
-                    }
-                    if (author == null || author.trim().isEmpty()) {
-                        errors.add("Row " + (i + 1) + ": Missing author field");
-                        continue;
-                    }
-
-                    bookService.addBook(title.trim(), author.trim(), genre != null ? genre.trim() : null);
-                    added++;
-
-                } catch (RuntimeException e) {
-                    if (e.getMessage().contains("already exists")) {
-                        skipped++;
-                    } else {
-                        errors.add("Row " + (i + 1) + ": " + e.getMessage());
-                    }
+                    ImportJobStatus job = importJobService.submit(upload, file.getSize(), importFormat);
+                    return ResponseEntity.accepted()
+                            .header(HttpHeaders.LOCATION, "/admin/import/" + job.getId())
+                            .body(Map.of(
+                                    "message", "Import queued",
+                                    "job", job
+                            ));
+                } catch (ImportJobService.QueueFullException e) {
+                    return ResponseEntity.status(503)
+                            .header(HttpHeaders.RETRY_AFTER, "30")
+                            .body(Map.of("error", e.getMessage()));
                 }
             }
 
-            ImportSummary summary = new ImportSummary(added, skipped, errors);
+            // Parse and apply straight from the (disk-spooled) upload stream
+            ImportSummary summary;
+            try (InputStream in = file.getInputStream()) {
+                summary = bookImportService.importBooks(in, importFormat);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(422).body(Map.of("error", e.getMessage()));
+            }
 
             return ResponseEntity.ok(Map.of(
                     "message", "Import completed",
@@ -162,6 +274,53 @@ public class AdminController {
         }
     }
 
+    @Operation(
+            summary = "Import job status",
+            description = "Progress of a background import: rows processed, rows/sec, counts so far and ETA"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job status"),
+            @ApiResponse(responseCode = "403", description = "Admin access required"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired job")
+    })
+    @GetMapping("/import/{id}")
+    public ResponseEntity<?> getImportJob(@PathVariable String id, HttpServletRequest request) {
+        if (!authHelper.isAdmin(request)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
+        }
+
+        Optional<ImportJobStatus> job = importJobService.getStatus(id);
+        if (job.isEmpty()) {
+            return ResponseEntity.status(404).body(Map.of("error", "Import job not found"));
+        }
+        return ResponseEntity.ok(job.get());
+    }
+
+    @Operation(
+            summary = "Cancel import job",
+            description = "Stop a queued or running import; rows already imported are kept"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cancellation requested"),
+            @ApiResponse(responseCode = "403", description = "Admin access required"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired job")
+    })
+    @DeleteMapping("/import/{id}")
+    public ResponseEntity<?> cancelImportJob(@PathVariable String id, HttpServletRequest request) {
+        if (!authHelper.isAdmin(request)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
+        }
+
+        Optional<ImportJobStatus> job = importJobService.cancel(id);
+        if (job.isEmpty()) {
+            return ResponseEntity.status(404).body(Map.of("error", "Import job not found"));
+        }
+        return ResponseEntity.ok(Map.of(
+                "message", "Cancellation requested",
+                "job", job.get()
+        ));
+    }
+
     @Operation(
             summary = "Add book",
             description = "Add new book to catalog (Admin only)"
@@ -264,4 +423,125 @@ public class AdminController {
             return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "Request latency histograms",
+            description = "p50/p99/p999/max in milliseconds per route, in total and per phase (auth, service, serialization, other), since startup or the last reset"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Histograms by route"),
+            @ApiResponse(responseCode = "403", description = "Admin access required")
+    })
+    @GetMapping("/perf")
+    public ResponseEntity<?> getPerf(HttpServletRequest request) {
+        if (!authHelper.isAdmin(request)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
+        }
+        return ResponseEntity.ok(requestTimings.snapshot());
+    }
+
+    @Operation(
+            summary = "Reset latency histograms",
+            description = "Clear all recorded request latencies, e.g. before a load test"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Histograms cleared"),
+            @ApiResponse(responseCode = "403", description = "Admin access required")
+    })
+    @DeleteMapping("/perf")
+    public ResponseEntity<?> resetPerf(HttpServletRequest request) {
+        if (!authHelper.isAdmin(request)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
+        }
+        requestTimings.reset();
+        return ResponseEntity.ok(Map.of("message", "Latency histograms cleared"));
+    }
+
+    @Operation(
+            summary = "Start flight recording",
+            description = "Start a JDK Flight Recorder recording with JVM and library events (repository scans, data file I/O, cache misses and evictions)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Recording started"),
+            @ApiResponse(responseCode = "400", description = "Unknown settings"),
+            @ApiResponse(responseCode = "403", description = "Admin access required"),
+            @ApiResponse(responseCode = "409", description = "A recording is already running")
+    })
+    @PostMapping("/jfr/start")
+    public ResponseEntity<?> startRecording(
+            @Parameter(description = "JFR settings: default (low overhead) or profile")
+            @RequestParam(defaultValue = "default") String settings,
+            HttpServletRequest request) {
+        if (!authHelper.isAdmin(request)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
+        }
+        try {
+            return ResponseEntity.ok(flightRecordingService.start(settings));
+        } catch (FlightRecordingService.RecordingStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(
+            summary = "Stop flight recording",
+            description = "Stop the running recording; its data stays available for download"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Recording stopped"),
+            @ApiResponse(responseCode = "403", description = "Admin access required"),
+            @ApiResponse(responseCode = "409", description = "No recording is running")
+    })
+    @PostMapping("/jfr/stop")
+    public ResponseEntity<?> stopRecording(HttpServletRequest request) {
+        if (!authHelper.isAdmin(request)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
+        }
+        try {
+            flightRecordingService.stop();
+            return ResponseEntity.ok(flightRecordingService.status());
+        } catch (FlightRecordingService.RecordingStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(
+            summary = "Download flight recording",
+            description = "The .jfr file of the last stopped recording, or a snapshot of the running one; open it in JDK Mission Control"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Recording file download"),
+            @ApiResponse(responseCode = "403", description = "Admin access required"),
+            @ApiResponse(responseCode = "404", description = "Nothing recorded yet")
+    })
+    @GetMapping("/jfr/recording")
+    public ResponseEntity<?> downloadRecording(HttpServletRequest request) {
+        if (!authHelper.isAdmin(request)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
+        }
+        Path file = flightRecordingService.download();
+        if (file == null) {
+            return ResponseEntity.status(404).body(Map.of("error", "No recording available"));
+        }
+        // This download's own copy; removed once it is sent (or the client went away)
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                FlightRecordingService.deleteQuietly(file);
+            }
+        };
+        String filename = "library_recording_" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) + ".jfr";
+        try {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .contentLength(Files.size(file))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                    .body(body);
+        } catch (IOException e) {
+            FlightRecordingService.deleteQuietly(file);
+            return ResponseEntity.status(500).body(Map.of("error", "Download failed: " + e.getMessage()));
+        }
+    }
+}
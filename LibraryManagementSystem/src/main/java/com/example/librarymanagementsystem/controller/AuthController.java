@@ -4,11 +4,16 @@ import com.example.librarymanagementsystem.model.User;
 import com.example.librarymanagementsystem.model.dto.LoginRequest;
 import com.example.librarymanagementsystem.model.dto.RegisterRequest;
 import com.example.librarymanagementsystem.service.AuthService;
+import com.example.librarymanagementsystem.util.AuthHelper;
+import com.example.librarymanagementsystem.util.BoundedPasswordEncoder;
+import com.example.librarymanagementsystem.util.SampledLogger;
+import com.example.librarymanagementsystem.util.SignedTokenHelper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,22 +28,29 @@ import java.util.Optional;
 @RequestMapping("/auth")
 public class AuthController {
 
+    private static final SampledLogger log = SampledLogger.of(AuthController.class, 20);
+
     private final AuthService authService;
+    private final AuthHelper authHelper;
+    private final SignedTokenHelper tokenHelper;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, AuthHelper authHelper, SignedTokenHelper tokenHelper) {
         this.authService = authService;
+        this.authHelper = authHelper;
+        this.tokenHelper = tokenHelper;
     }
 
     // @Operation provides endpoint description and summary for Swagger
     @Operation(
             summary = "User login",
-            description = "Authenticate user credentials and create session"
+            description = "Authenticate user credentials and create session (or issue a signed token when app.auth.mode=token)"
     )
     // @ApiResponses documents possible HTTP response codes
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Login successful"),
             @ApiResponse(responseCode = "401", description = "Invalid credentials"),
-            @ApiResponse(responseCode = "500", description = "Internal server error")
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+            @ApiResponse(responseCode = "503", description = "Too many logins in progress, retry shortly")
     })
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
@@ -48,22 +60,34 @@ public class AuthController {
             if (userOpt.isPresent()) {
                 User user = userOpt.get();
 
-                // Add these debug lines here:
-                System.out.println("User ID: " + user.getId());
-                System.out.println("User username: " + user.getUsername());
-                System.out.println("User email: " + user.getEmail());
-                System.out.println("User role: " + user.getRole());
+                // Stateless mode: no server-side session, the signed token is the whole identity
+                if (tokenHelper.isEnabled()) {
+                    String token = tokenHelper.issue(user);
+                    return ResponseEntity.ok()
+                            .header(HttpHeaders.SET_COOKIE, tokenHelper.cookie(token).toString())
+                            .body(Map.of(
+                                    "message", "Login successful",
+                                    "token", token,
+                                    "expiresIn", tokenHelper.getTtl().toSeconds(),
+                                    "user", Map.of(
+                                            "id", user.getId(),
+                                            "username", user.getUsername(),
+                                            "email", user.getEmail(),
+                                            "role", user.getRole().toString()
+                                    )
+                            ));
+                }
 
                 try {
                     // Create HTTP session for user
-                    System.out.println("Creating session for user: " + user.getId());
                     HttpSession session = httpRequest.getSession(true);
 
                     // store username (non-null) so session survives even if id is null
                     session.setAttribute("userId",   user.getId());        // real UUID
                     session.setAttribute("username", user.getUsername());  // for robustness
                     session.setAttribute("role",     user.getRole().toString());
-                    System.out.println("Session created: " + session.getId());
+                    authHelper.evictSession(httpRequest); // session may have belonged to someone else
+                    log.atDebug("session.created").addKeyValue("userId", user.getId()).log("Session created");
 
                     return ResponseEntity.ok(Map.of(
                             "message", "Login successful",
@@ -75,13 +99,15 @@ public class AuthController {
                             )
                     ));
                 } catch (Exception sessionError) {
-                    System.out.println("Session creation failed: " + sessionError.getMessage());
-                    sessionError.printStackTrace();
+                    log.atWarn("session.failed").addKeyValue("userId", user.getId()).setCause(sessionError)
+                            .log("Session creation failed");
                     return ResponseEntity.status(500).body(Map.of("error", "Session creation failed: " + sessionError.getMessage()));
                 }
             } else {
                 return ResponseEntity.status(401).body(Map.of("error", "Invalid credentials"));
             }
+        } catch (BoundedPasswordEncoder.SaturatedException e) {
+            return e.toResponse();
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Login failed: " + e.getMessage()));
         }
@@ -94,7 +120,8 @@ public class AuthController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Registration successful"),
             @ApiResponse(responseCode = "400", description = "Validation error"),
-            @ApiResponse(responseCode = "409", description = "Username or email already exists")
+            @ApiResponse(responseCode = "409", description = "Username or email already exists"),
+            @ApiResponse(responseCode = "503", description = "Too many requests in progress, retry shortly")
     })
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
@@ -114,6 +141,8 @@ public class AuthController {
                             "role", newUser.getRole()
                     )
             ));
+        } catch (BoundedPasswordEncoder.SaturatedException e) {
+            return e.toResponse();
         } catch (RuntimeException e) {
             return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
@@ -123,17 +152,26 @@ public class AuthController {
 
     @Operation(
             summary = "User logout",
-            description = "Invalidate current user session"
+            description = "Invalidate current user session (or revoke the current token)"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Logout successful")
     })
     @PostMapping("/logout")
     public ResponseEntity<?> logout(HttpServletRequest request) {
+        if (tokenHelper.isEnabled()) {
+            authHelper.getCurrentClaims(request).ifPresent(tokenHelper::revoke);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, tokenHelper.clearCookie().toString())
+                    .body(Map.of("message", "Logout successful"));
+        }
+
         HttpSession session = request.getSession(false);
         if (session != null) {
+            authHelper.evictSession(request);
             session.invalidate();
         }
         return ResponseEntity.ok(Map.of("message", "Logout successful"));
     }
-}
\ No newline at end of file
+
+    // Password hashing pool is saturated: fail fast and tell the client when to retry}
\ No newline at end of file
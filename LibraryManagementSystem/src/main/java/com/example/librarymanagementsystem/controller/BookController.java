@@ -2,24 +2,37 @@ package com.example.librarymanagementsystem.controller;
 
 import com.example.librarymanagementsystem.model.Book;
 import com.example.librarymanagementsystem.model.Rental;
+import com.example.librarymanagementsystem.model.dto.IdListRequest;
 import com.example.librarymanagementsystem.model.dto.PagedResponse;
 import com.example.librarymanagementsystem.service.BookService;
 import com.example.librarymanagementsystem.service.RentalService;
 import com.example.librarymanagementsystem.util.AuthHelper;
+import com.example.librarymanagementsystem.util.CatalogPageCache;
+import com.example.librarymanagementsystem.util.EtagHelper;
+import com.example.librarymanagementsystem.util.FieldProjection;
+import com.example.librarymanagementsystem.util.FragmentCache;
+import com.example.librarymanagementsystem.util.WireFormats;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 // @Tag groups book-related endpoints in Swagger UI
@@ -28,14 +41,22 @@ import java.util.stream.Collectors;
 @RequestMapping("/books")
 public class BookController {
 
+    // Start of a JSON page with no books; PagedResponse writes content first
+    private static final byte[] EMPTY_CONTENT_PREFIX = "{\"content\":[]".getBytes(StandardCharsets.UTF_8);
+
     private final BookService bookService;
     private final RentalService rentalService;
     private final AuthHelper authHelper;
+    private final CatalogPageCache catalogPageCache;
+    private final FieldProjection fieldProjection;
 
-    public BookController(BookService bookService, RentalService rentalService, AuthHelper authHelper) {
+    public BookController(BookService bookService, RentalService rentalService, AuthHelper authHelper,
+                          CatalogPageCache catalogPageCache, FieldProjection fieldProjection) {
         this.bookService = bookService;
         this.rentalService = rentalService;
         this.authHelper = authHelper;
+        this.catalogPageCache = catalogPageCache;
+        this.fieldProjection = fieldProjection;
     }
 
     @Operation(
@@ -44,6 +65,7 @@ public class BookController {
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Books retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid pagination parameters"),
             @ApiResponse(responseCode = "401", description = "Authentication required"),
             @ApiResponse(responseCode = "500", description = "Search failed")
     })
@@ -57,6 +79,8 @@ public class BookController {
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Number of items per page (max 100)")
             @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Comma-separated book fields to return, e.g. id,title,status (optional, default all)")
+            @RequestParam(required = false) String fields,
             HttpServletRequest request) {
 
         try {
@@ -65,12 +89,40 @@ public class BookController {
                 return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
             }
 
+            // Validate pagination parameters (also keeps every cached page small)
+            authHelper.validatePagination(page, size);
+            WireFormats.Format format = WireFormats.negotiate(request);
+            FieldProjection.Projection projection = fieldProjection.forType(Book.class, fields, format);
+
+            // Conditional GET: answer from the catalog version alone when the client is up to date
+            long version = catalogPageCache.currentVersion();
+            String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+            boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+            String etag = EtagHelper.etag("books", version, gzip ? "gzip" : "identity",
+                    format.tag(), projection.fields());
+            if (EtagHelper.matches(request, etag)) {
+                return EtagHelper.notModified(etag);
+            }
+
+            // Serve an already rendered page when the catalog has not changed since it was built
+            boolean byTitle = title != null && !title.trim().isEmpty();
+            boolean byAuthor = !byTitle && author != null && !author.trim().isEmpty();
+            String query = byTitle ? "title:" + title.toLowerCase().trim()
+                    : byAuthor ? "author:" + author.toLowerCase().trim()
+                    : "";
+            CatalogPageCache.Key cacheKey = new CatalogPageCache.Key(query, page, size, projection.fields(), format);
+
+            CatalogPageCache.Page cachedPage = catalogPageCache.get(cacheKey);
+            if (cachedPage != null) {
+                return renderedPage(cachedPage, format, gzip, etag);
+            }
+
             List<Book> books;
 
             // Search logic based on provided parameters
-            if (title != null && !title.trim().isEmpty()) {
+            if (byTitle) {
                 books = bookService.searchByTitle(title);
-            } else if (author != null && !author.trim().isEmpty()) {
+            } else if (byAuthor) {
                 books = bookService.searchByAuthor(author);
             } else {
                 books = bookService.getAllBooks();
@@ -81,19 +133,53 @@ public class BookController {
                     .sorted(Comparator.comparing(Book::getId))
                     .collect(Collectors.toList());
 
-            // Simple pagination
-            int start = page * size;
-            int end = Math.min(start + size, books.size());
-            List<Book> pageContent = books.subList(Math.max(0, start), end);
+            List<Book> pageContent = authHelper.applyPagination(books, page, size);
 
             PagedResponse<Book> response = new PagedResponse<>(pageContent, page, size, books.size());
-            return ResponseEntity.ok(response);
+            byte[] body = format == WireFormats.Format.JSON && projection.fields().isEmpty()
+                    ? assembledPage(response, projection)
+                    : projection.write(response);
+            return renderedPage(catalogPageCache.store(cacheKey, version, body), format, gzip, etag);
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Search failed: " + e.getMessage()));
         }
     }
 
+    // Full-field JSON page built from each book's cached JSON: the envelope is written around an
+    // empty list and the books are spliced in where "[]" was (fragment lookups count as service time)
+    private byte[] assembledPage(PagedResponse<Book> response, FieldProjection.Projection projection) throws IOException {
+        List<Book> content = response.getContent();
+        byte[] envelope = projection.write(new PagedResponse<>(List.of(), response.getPage(),
+                response.getSize(), response.getTotal()));
+        int prefix = EMPTY_CONTENT_PREFIX.length;
+        if (envelope.length < prefix || !Arrays.equals(envelope, 0, prefix, EMPTY_CONTENT_PREFIX, 0, prefix)) {
+            return projection.write(response); // Unexpected envelope layout, serialize normally
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(envelope.length + content.size() * 256);
+        out.write(envelope, 0, prefix - 2); // {"content":
+        FragmentCache.writeArray(content.iterator(), bookService::serialized, out);
+        out.write(envelope, prefix, envelope.length - prefix); // ,"page":...}
+        return out.toByteArray();
+    }
+
+    // Write a pre-serialized catalog page, gzipped when the client accepts it
+    private ResponseEntity<byte[]> renderedPage(CatalogPageCache.Page page, WireFormats.Format format,
+                                                boolean gzip, String etag) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING + ", " + HttpHeaders.ACCEPT)
+                .eTag(etag)
+                .cacheControl(EtagHelper.REVALIDATE);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(page.gzip());
+        }
+        return builder.body(page.body());
+    }
+
     @Operation(
             summary = "Add new book",
             description = "Add a new book to the library catalog (Admin only)"
@@ -225,16 +311,130 @@ public class BookController {
         }
     }
 
+    @Operation(
+            summary = "Rent several books",
+            description = "Rent all listed books in one request (checkout cart). Either every book is rented or none is"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "All books rented successfully"),
+            @ApiResponse(responseCode = "400", description = "A book is unavailable, unknown, or the rental limit would be exceeded"),
+            @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @PostMapping("/rent-batch")
+    public ResponseEntity<?> rentBooks(@RequestBody IdListRequest body, HttpServletRequest request) {
+        try {
+            // Get current user ID from session
+            Optional<String> userIdOpt = authHelper.getCurrentUserId(request);
+            if (userIdOpt.isEmpty()) {
+                return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
+            }
+
+            List<Rental> rentals = rentalService.rentBooks(userIdOpt.get(), body.getIds());
+
+            return ResponseEntity.ok(Map.of(
+                    "message", rentals.size() + " books rented successfully",
+                    "rentals", rentals.stream()
+                            .map(rental -> Map.of(
+                                    "id", rental.getId(),
+                                    "bookId", rental.getBookId(),
+                                    "rentDate", rental.getRentDate()
+                            ))
+                            .toList()
+            ));
+
+        } catch (Exception e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(
+            summary = "Return several books",
+            description = "Return all listed books in one request. Either every book is returned or none is"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "All books returned successfully"),
+            @ApiResponse(responseCode = "400", description = "No active rental found for one of the books"),
+            @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @PostMapping("/return-batch")
+    public ResponseEntity<?> returnBooks(@RequestBody IdListRequest body, HttpServletRequest request) {
+        try {
+            // Get current user ID from session
+            Optional<String> userIdOpt = authHelper.getCurrentUserId(request);
+            if (userIdOpt.isEmpty()) {
+                return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
+            }
+
+            List<Rental> rentals = rentalService.returnBooks(userIdOpt.get(), body.getIds());
+
+            return ResponseEntity.ok(Map.of(
+                    "message", rentals.size() + " books returned successfully",
+                    "rentals", rentals.stream()
+                            .map(rental -> Map.of(
+                                    "id", rental.getId(),
+                                    "bookId", rental.getBookId(),
+                                    "returnDate", rental.getReturnDate()
+                            ))
+                            .toList()
+            ));
+
+        } catch (Exception e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(
+            summary = "Get books by ID",
+            description = "Fetch up to 100 books by ID in one request. Unknown IDs are listed under \"missing\""
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Books retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "No IDs or too many IDs"),
+            @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @PostMapping("/batch-get")
+    public ResponseEntity<?> getBooksByIds(@RequestBody IdListRequest body, HttpServletRequest request) {
+        try {
+            if (!authHelper.isAuthenticated(request)) {
+                return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
+            }
+
+            List<String> ids = authHelper.validateIds(body.getIds());
+            List<Book> books = bookService.findByIds(ids);
+
+            return ResponseEntity.ok(Map.of(
+                    "books", books,
+                    "missing", missingIds(ids, books.stream().map(Book::getId).toList())
+            ));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to get books: " + e.getMessage()));
+        }
+    }
+
+    // Requested ids that were not found, in request order
+    private static List<String> missingIds(List<String> requested, List<String> found) {
+        Set<String> foundIds = new HashSet<>(found);
+        return requested.stream().filter(id -> !foundIds.contains(id)).toList();
+    }
+
     @Operation(
             summary = "Get my rentals",
-            description = "Retrieve current user's active book rentals"
+            description = "Retrieve current user's active book rentals. Use expand=book to embed each rental's book"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Rentals retrieved successfully"),
             @ApiResponse(responseCode = "401", description = "Authentication required")
     })
     @GetMapping("/my-rentals")
-    public ResponseEntity<?> getMyRentals(HttpServletRequest request) {
+    public ResponseEntity<?> getMyRentals(
+            @Parameter(description = "Set to \"book\" to embed book details in each rental")
+            @RequestParam(required = false) String expand,
+            @Parameter(description = "Comma-separated rental fields to return, e.g. id,bookId,book (optional, default all)")
+            @RequestParam(required = false) String fields,
+            HttpServletRequest request) {
         try {
             // Get current user ID from session
             Optional<String> userIdOpt = authHelper.getCurrentUserId(request);
@@ -243,15 +443,36 @@ public class BookController {
             }
 
             String userId = userIdOpt.get();
-            List<Rental> activeRentals = rentalService.getUserActiveRentals(userId);
+            boolean expandBook = "book".equalsIgnoreCase(expand);
+            WireFormats.Format format = WireFormats.negotiate(request);
+            FieldProjection.Projection projection = fieldProjection.forType(Rental.class, fields, format);
+
+            // Conditional GET: unchanged rental data means an unchanged list for this user
+            // (embedded books also depend on the catalog version)
+            String etag = EtagHelper.etag("rentals", rentalService.getRentalsVersion(), userId,
+                    expandBook ? "book" + catalogPageCache.currentVersion() : "",
+                    format.tag(), projection.fields());
+            if (EtagHelper.matches(request, etag)) {
+                return EtagHelper.notModified(etag);
+            }
 
-            return ResponseEntity.ok(Map.of(
-                    "rentals", activeRentals,
+            List<Rental> activeRentals = rentalService.getUserActiveRentals(userId);
+            Map<String, Object> body = Map.of(
+                    "rentals", expandBook ? rentalService.withBooks(activeRentals) : activeRentals,
                     "count", activeRentals.size()
-            ));
+            );
 
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(EtagHelper.REVALIDATE)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                    .contentType(format.mediaType())
+                    .body(projection.write(body));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+}
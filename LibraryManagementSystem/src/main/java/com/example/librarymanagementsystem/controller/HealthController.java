@@ -1,9 +1,23 @@
 package com.example.librarymanagementsystem.controller;
 
+import com.example.librarymanagementsystem.util.AuthHelper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.actuate.health.StatusAggregator;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * HealthController
@@ -12,23 +26,68 @@ import java.util.Map;
  * Purpose:
  * - Quick way to check if the application is alive and responding.
  * - Often used by monitoring tools or just for manual "is it up?" checks.
+ *
+ * Load balancers should use the probes instead (see HealthConfig):
+ * - /livez: restart the instance when this fails
+ * - /readyz: stop routing traffic here when this fails (still loading, persistence behind, heap nearly full)
+ * The probes only answer with a status; admins get every check's details and timing from /admin/health.
  */
 @RestController // Marks this class as a REST controller (returns JSON instead of HTML)
 public class HealthController {
 
+    private final ApplicationAvailability availability;
+    private final AuthHelper authHelper;
+    private final Map<String, HealthIndicator> indicators; // bean name -> check, e.g. heapHealthIndicator
+
+    public HealthController(ApplicationAvailability availability, AuthHelper authHelper,
+                            Map<String, HealthIndicator> indicators) {
+        this.availability = availability;
+        this.authHelper = authHelper;
+        this.indicators = new TreeMap<>(indicators);
+    }
+
     /**
      * GET /health
      *
      * Returns a small JSON object with:
-     * - status: always "UP" if this code is running
+     * - status: "UP" while the application is live, "DOWN" (with 503) once it is broken
+     * - readiness: whether the application currently accepts traffic
      * - timestamp: current server time
      */
     @GetMapping("/health") // Maps GET requests for /health to this method
-    public Map<String, Object> health() {
+    public ResponseEntity<Map<String, Object>> health() {
+        boolean live = availability.getLivenessState() == LivenessState.CORRECT;
+        boolean ready = availability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC;
         // Return a simple JSON map (Spring automatically converts Map -> JSON)
-        return Map.of(
-                "status", "UP",
+        return ResponseEntity.status(live ? 200 : 503).body(Map.of(
+                "status", live ? "UP" : "DOWN",
+                "readiness", ready ? "ACCEPTING_TRAFFIC" : "REFUSING_TRAFFIC",
+                "timestamp", LocalDateTime.now().toString()
+        ));
+    }
+
+    /**
+     * GET /admin/health (admin only)
+     *
+     * Runs every health check and returns each one's status and details, including its
+     * durationMs, which the anonymous probes do not show. Always 200; "status" is the overall result.
+     */
+    @GetMapping("/admin/health")
+    public ResponseEntity<?> healthDetails(HttpServletRequest request) {
+        if (!authHelper.isAdmin(request)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
+        }
+        Map<String, Health> checks = new LinkedHashMap<>();
+        List<Status> statuses = new ArrayList<>();
+        indicators.forEach((bean, indicator) -> {
+            Health health = indicator.health();
+            checks.put(bean.replaceFirst("HealthIndicator$", ""), health);
+            statuses.add(health.getStatus());
+        });
+        return ResponseEntity.ok(Map.of(
+                "status", StatusAggregator.getDefault().getAggregateStatus(statuses.toArray(new Status[0])),
+                "checks", checks,
                 "timestamp", LocalDateTime.now().toString()
-        );
+        ));
     }
 }
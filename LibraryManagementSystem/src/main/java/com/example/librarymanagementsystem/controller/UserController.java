@@ -2,22 +2,31 @@ package com.example.librarymanagementsystem.controller;
 
 import com.example.librarymanagementsystem.model.Rental;
 import com.example.librarymanagementsystem.model.User;
+import com.example.librarymanagementsystem.model.dto.IdListRequest;
 import com.example.librarymanagementsystem.model.dto.PagedResponse;
 import com.example.librarymanagementsystem.service.RentalService;
 import com.example.librarymanagementsystem.service.UserService;
 import com.example.librarymanagementsystem.util.AuthHelper;
+import com.example.librarymanagementsystem.util.BoundedPasswordEncoder;
+import com.example.librarymanagementsystem.util.EtagHelper;
+import com.example.librarymanagementsystem.util.FieldProjection;
+import com.example.librarymanagementsystem.util.WireFormats;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 // @Tag groups user management endpoints in Swagger UI
 @Tag(name = "Users", description = "User profile and account management")
@@ -28,11 +37,14 @@ public class UserController {
     private final UserService userService;
     private final AuthHelper authHelper;
     private final RentalService rentalService;
+    private final FieldProjection fieldProjection;
 
-    public UserController(UserService userService, AuthHelper authHelper, RentalService rentalService) {
+    public UserController(UserService userService, AuthHelper authHelper, RentalService rentalService,
+                          FieldProjection fieldProjection) {
         this.userService = userService;
         this.authHelper = authHelper;
         this.rentalService = rentalService;
+        this.fieldProjection = fieldProjection;
     }
 
     @Operation(
@@ -74,7 +86,8 @@ public class UserController {
             @ApiResponse(responseCode = "200", description = "Profile updated successfully"),
             @ApiResponse(responseCode = "400", description = "Validation error"),
             @ApiResponse(responseCode = "401", description = "Authentication required"),
-            @ApiResponse(responseCode = "409", description = "Username or email already taken")
+            @ApiResponse(responseCode = "409", description = "Username or email already taken"),
+            @ApiResponse(responseCode = "503", description = "Too many password changes in progress, retry shortly")
     })
     @PutMapping("/me")
     public ResponseEntity<?> updateMyProfile(@RequestBody Map<String, String> updateData, HttpServletRequest request) {
@@ -108,6 +121,8 @@ public class UserController {
                     )
             ));
 
+        } catch (BoundedPasswordEncoder.SaturatedException e) {
+            return e.toResponse();
         } catch (Exception e) {
             return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
         }
@@ -128,6 +143,8 @@ public class UserController {
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Number of items per page (max 100)")
             @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Comma-separated user fields to return, e.g. id,username,role (optional, default all)")
+            @RequestParam(required = false) String fields,
             HttpServletRequest request) {
         try {
             if (!authHelper.isAdmin(request)) {
@@ -136,12 +153,70 @@ public class UserController {
 
             // Validate pagination parameters
             authHelper.validatePagination(page, size);
+            WireFormats.Format format = WireFormats.negotiate(request);
+            FieldProjection.Projection projection = fieldProjection.forType(User.class, fields, format);
+
+            // Conditional GET: unchanged user data means an unchanged page
+            String etag = EtagHelper.etag("users", userService.getUsersVersion(), format.tag(), projection.fields());
+            if (EtagHelper.matches(request, etag)) {
+                return EtagHelper.notModified(etag);
+            }
 
             List<User> allUsers = userService.getAllUsers();
             List<User> pageContent = authHelper.applyPagination(allUsers, page, size);
 
+            // Written through the projection so password hashes are never included
             PagedResponse<User> response = new PagedResponse<>(pageContent, page, size, allUsers.size());
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(EtagHelper.REVALIDATE)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                    .contentType(format.mediaType())
+                    .body(projection.write(response));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to get users: " + e.getMessage()));
+        }
+    }
+
+    @Operation(
+            summary = "Get users by ID",
+            description = "Fetch up to 100 users by ID in one request (Admin only). Unknown IDs are listed under \"missing\""
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "No IDs or too many IDs"),
+            @ApiResponse(responseCode = "403", description = "Admin access required")
+    })
+    @PostMapping("/batch-get")
+    public ResponseEntity<?> getUsersByIds(@RequestBody IdListRequest body, HttpServletRequest request) {
+        try {
+            if (!authHelper.isAdmin(request)) {
+                return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
+            }
+
+            List<String> ids = authHelper.validateIds(body.getIds());
+            List<User> users = userService.findByIds(ids);
+
+            // Same public fields as /users/me; password hashes never leave the server
+            Set<String> found = new HashSet<>();
+            List<Map<String, Object>> summaries = new ArrayList<>(users.size());
+            for (User user : users) {
+                found.add(user.getId());
+                summaries.add(Map.of(
+                        "id", user.getId(),
+                        "username", user.getUsername(),
+                        "email", user.getEmail(),
+                        "role", user.getRole()
+                ));
+            }
+
+            return ResponseEntity.ok(Map.of(
+                    "users", summaries,
+                    "missing", ids.stream().filter(id -> !found.contains(id)).toList()
+            ));
 
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
@@ -152,7 +227,7 @@ public class UserController {
 
     @Operation(
             summary = "Get my rental history",
-            description = "Retrieve current user's complete rental history with pagination"
+            description = "Retrieve current user's complete rental history with pagination. Use expand=book to embed each rental's book"
     )
     @GetMapping("/me/rentals")
     public ResponseEntity<?> getMyRentalHistory(
@@ -160,6 +235,10 @@ public class UserController {
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Number of items per page (max 100)")
             @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Set to \"book\" to embed book details in each rental")
+            @RequestParam(required = false) String expand,
+            @Parameter(description = "Comma-separated rental fields to return, e.g. id,bookId,status (optional, default all)")
+            @RequestParam(required = false) String fields,
             HttpServletRequest request) {
         try {
             Optional<String> userIdOpt = authHelper.getCurrentUserId(request);
@@ -168,13 +247,21 @@ public class UserController {
             }
 
             authHelper.validatePagination(page, size);
+            WireFormats.Format format = WireFormats.negotiate(request);
+            FieldProjection.Projection projection = fieldProjection.forType(Rental.class, fields, format);
 
             String userId = userIdOpt.get();
             List<Rental> allRentals = rentalService.getUserRentalHistory(userId);
             List<Rental> pageContent = authHelper.applyPagination(allRentals, page, size);
 
-            PagedResponse<Rental> response = new PagedResponse<>(pageContent, page, size, allRentals.size());
-            return ResponseEntity.ok(response);
+            // Only the books on this page are joined in
+            PagedResponse<?> response = "book".equalsIgnoreCase(expand)
+                    ? new PagedResponse<>(rentalService.withBooks(pageContent), page, size, allRentals.size())
+                    : new PagedResponse<>(pageContent, page, size, allRentals.size());
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                    .contentType(format.mediaType())
+                    .body(projection.write(response));
 
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
@@ -191,7 +278,8 @@ public class UserController {
             @ApiResponse(responseCode = "200", description = "User updated successfully"),
             @ApiResponse(responseCode = "400", description = "Validation error"),
             @ApiResponse(responseCode = "403", description = "Admin access required"),
-            @ApiResponse(responseCode = "404", description = "User not found")
+            @ApiResponse(responseCode = "404", description = "User not found"),
+            @ApiResponse(responseCode = "503", description = "Too many password changes in progress, retry shortly")
     })
     @PutMapping("/{id}")
     public ResponseEntity<?> updateUser(
@@ -214,6 +302,8 @@ public class UserController {
                     "user", updatedUser
             ));
 
+        } catch (BoundedPasswordEncoder.SaturatedException e) {
+            return e.toResponse();
         } catch (Exception e) {
             return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
         }
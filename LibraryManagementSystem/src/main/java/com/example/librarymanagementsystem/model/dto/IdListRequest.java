@@ -0,0 +1,19 @@
+package com.example.librarymanagementsystem.model.dto;
+
+import java.util.List;
+
+public class IdListRequest {
+    private List<String> ids;
+
+    // Default constructor
+    public IdListRequest() {}
+
+    // Constructor
+    public IdListRequest(List<String> ids) {
+        this.ids = ids;
+    }
+
+    // Getters and setters
+    public List<String> getIds() { return ids; }
+    public void setIds(List<String> ids) { this.ids = ids; }
+}
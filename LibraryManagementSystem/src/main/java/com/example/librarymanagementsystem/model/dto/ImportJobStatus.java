@@ -0,0 +1,62 @@
+package com.example.librarymanagementsystem.model.dto;
+
+import java.time.Instant;
+
+public class ImportJobStatus {
+    private String id;
+    private String state;             // QUEUED, RUNNING, COMPLETED, FAILED or CANCELLED
+    private String format;            // JSON, NDJSON or CSV
+    private long rowsProcessed;       // Rows read so far (valid or not)
+    private long bytesRead;
+    private long totalBytes;
+    private double rowsPerSecond;
+    private Long etaSeconds;          // Estimated time left while running, null when unknown
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private ImportSummary summary;    // Counts so far; final once the job has finished
+    private String error;             // Why the job failed, if it did
+
+    // Default constructor
+    public ImportJobStatus() {}
+
+    // Getters and setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+
+    public long getRowsProcessed() { return rowsProcessed; }
+    public void setRowsProcessed(long rowsProcessed) { this.rowsProcessed = rowsProcessed; }
+
+    public long getBytesRead() { return bytesRead; }
+    public void setBytesRead(long bytesRead) { this.bytesRead = bytesRead; }
+
+    public long getTotalBytes() { return totalBytes; }
+    public void setTotalBytes(long totalBytes) { this.totalBytes = totalBytes; }
+
+    public double getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(double rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+
+    public Long getEtaSeconds() { return etaSeconds; }
+    public void setEtaSeconds(Long etaSeconds) { this.etaSeconds = etaSeconds; }
+
+    public Instant getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(Instant submittedAt) { this.submittedAt = submittedAt; }
+
+    public Instant getStartedAt() { return startedAt; }
+    public void setStartedAt(Instant startedAt) { this.startedAt = startedAt; }
+
+    public Instant getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+
+    public ImportSummary getSummary() { return summary; }
+    public void setSummary(ImportSummary summary) { this.summary = summary; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -5,7 +5,8 @@ import java.util.List;
 public class ImportSummary {
     private int added;        // Number of books successfully imported
     private int skipped;      // Number of books skipped (duplicates)
-    private List<String> errors;  // Error messages for failed imports
+    private List<String> errors;  // Error messages for failed imports (capped, see app.import.max-errors)
+    private int errorCount;       // Total number of failed rows, including those not listed
 
     // Default constructor
     public ImportSummary() {}
@@ -15,6 +16,14 @@ public class ImportSummary {
         this.added = added;
         this.skipped = skipped;
         this.errors = errors;
+        this.errorCount = errors != null ? errors.size() : 0;
+    }
+
+    public ImportSummary(int added, int skipped, List<String> errors, int errorCount) {
+        this.added = added;
+        this.skipped = skipped;
+        this.errors = errors;
+        this.errorCount = errorCount;
     }
 
     // Getters and setters
@@ -26,4 +35,7 @@ public class ImportSummary {
 
     public List<String> getErrors() { return errors; }
     public void setErrors(List<String> errors) { this.errors = errors; }
-}
\ No newline at end of file
+
+    public int getErrorCount() { return errorCount; }
+    public void setErrorCount(int errorCount) { this.errorCount = errorCount; }
+}
@@ -1,7 +1,10 @@
 package com.example.librarymanagementsystem.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
 import java.util.List;
 
+@JsonPropertyOrder({"content"}) // Content first, so a page can be assembled from pre-serialized items
 public class PagedResponse<T> {
     private List<T> content;
     private int page;
@@ -0,0 +1,29 @@
+package com.example.librarymanagementsystem.model.dto;
+
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.model.Rental;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+// Rental listing entry with its book embedded (?expand=book)
+// Serializes as the usual rental fields plus a "book" object (null if the book was deleted)
+public class RentalWithBook {
+    @JsonUnwrapped
+    private Rental rental;
+    private Book book;
+
+    // Default constructor
+    public RentalWithBook() {}
+
+    // Constructor
+    public RentalWithBook(Rental rental, Book book) {
+        this.rental = rental;
+        this.book = book;
+    }
+
+    // Getters and setters
+    public Rental getRental() { return rental; }
+    public void setRental(Rental rental) { this.rental = rental; }
+
+    public Book getBook() { return book; }
+    public void setBook(Book book) { this.book = book; }
+}
@@ -1,15 +1,29 @@
 package com.example.librarymanagementsystem.repository;
 
 import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.util.JsonFileHandler;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 public interface BookRepository {
     List<Book> findAll();
+    Iterator<Book> iterateAll(); // Point-in-time snapshot, walked lazily (exports)
     Optional<Book> findById(String id);
     Book save(Book book);
+    List<Book> saveAll(List<Book> books); // Insert or replace all, published as one write
     void delete(String id);
     List<Book> findByTitleContaining(String title);
     List<Book> findByAuthorContaining(String author);
     boolean existsByTitleAndAuthor(String title, String author);
-}
\ No newline at end of file
+    byte[] serialized(Book book); // JSON of a stored book, reused until the book is saved or deleted
+    JsonFileHandler.Status fileStatus(); // Load and write outcome of the backing data file
+
+    // Normalized title + author used to detect duplicate books
+    static String titleAuthorKey(String title, String author) {
+        String t = title != null ? title.trim().toLowerCase(Locale.ROOT) : "";
+        String a = author != null ? author.trim().toLowerCase(Locale.ROOT) : "";
+        return t + '\u0000' + a;
+    }
+}
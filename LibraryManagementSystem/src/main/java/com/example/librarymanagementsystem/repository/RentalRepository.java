@@ -1,6 +1,7 @@
 package com.example.librarymanagementsystem.repository;
 
 import com.example.librarymanagementsystem.model.Rental;
+import com.example.librarymanagementsystem.util.JsonFileHandler;
 import java.util.List;
 import java.util.Optional;
 
@@ -8,8 +9,15 @@ public interface RentalRepository {
     List<Rental> findAll();
     Optional<Rental> findById(String id);
     Rental save(Rental rental);
+    List<Rental> saveAll(List<Rental> rentals); // Insert or replace all, published as one write
     void delete(String id);
     List<Rental> findByUserId(String userId);
     List<Rental> findByBookId(String bookId);
     List<Rental> findActiveRentals();
+
+    // Monotonic counter incremented on every write (used for ETags)
+    long version();
+
+    // Load and write outcome of the backing data file
+    JsonFileHandler.Status fileStatus();
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.librarymanagementsystem.repository;
 
 import com.example.librarymanagementsystem.model.User;
+import com.example.librarymanagementsystem.util.JsonFileHandler;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +14,10 @@ public interface UserRepository {
     void delete(String id);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    // Monotonic counter incremented on every write (used for ETags)
+    long version();
+
+    // Load and write outcome of the backing data file
+    JsonFileHandler.Status fileStatus();
 }
\ No newline at end of file
@@ -0,0 +1,504 @@
+package com.example.librarymanagementsystem.repository.impl;
+
+import com.example.librarymanagementsystem.util.JsonMappers;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.session.MapSession;
+import org.springframework.session.SessionRepository;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// File-backed Spring Session store (enabled with app.session.store=file, see SessionConfig)
+// Keeps HttpSessions across restarts so a redeploy does not force every user through BCrypt again
+//
+// - Append-only JSON-lines log: one line per saved session state, a tombstone line per delete
+// - Lazy writes: save() only marks the session dirty; a background flush appends every dirty
+//   session in one batched write (plus a final flush on shutdown)
+// - Startup only indexes the log (id -> offset of latest record); a session is read from disk
+//   the first time its cookie shows up again
+// - A background sweep drops expired sessions and compacts the log once it is mostly garbage
+public class FileSessionRepository implements SessionRepository<MapSession>, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSessionRepository.class);
+
+    // Compact when dead lines outnumber live ones (and there are enough to be worth it)
+    private static final int COMPACT_MIN_DEAD_RECORDS = 1000;
+
+    // One line in the log
+    record SessionRecord(String id, long createdAt, long lastAccessedAt, long maxInactiveSeconds,
+                         Map<String, Object> attributes, boolean deleted) { }
+
+    // Where the latest record of a session lives in the log
+    private record IndexEntry(long offset, int length, long expiresAtMillis) { }
+
+    private final ObjectReader recordReader = JsonMappers.shared().readerFor(SessionRecord.class);
+    private final ObjectWriter recordWriter = JsonMappers.shared().writerFor(SessionRecord.class);
+    private final Path logFile;
+    private final Duration defaultMaxInactiveInterval;
+
+    private final Map<String, MapSession> loaded = new ConcurrentHashMap<>();   // Sessions touched since startup
+    private final Map<String, IndexEntry> index = new ConcurrentHashMap<>();    // Sessions on disk
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();            // Waiting to be appended
+    private final Set<String> deleted = ConcurrentHashMap.newKeySet();          // Waiting for a tombstone
+
+    // Readers share the log; flush and compaction (which move offsets) are exclusive
+    private final ReadWriteLock fileLock = new ReentrantReadWriteLock();
+    private FileChannel channel;
+    private long deadRecords;
+
+    // Persistence lag, reported by the readiness check (HealthConfig)
+    private final AtomicLong oldestPendingAtMillis = new AtomicLong(); // 0 when nothing waits for a flush
+    private volatile Instant lastFlushAt = Instant.now();
+    private volatile String lastFlushError;
+
+    private final ScheduledExecutorService scheduler;
+
+    public FileSessionRepository(Path logFile, Duration defaultMaxInactiveInterval,
+                                 Duration flushInterval, Duration sweepInterval) throws IOException {
+        this.logFile = logFile;
+        this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+
+        Path parent = logFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = openChannel();
+        buildIndex();
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "session-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::sweepQuietly,
+                sweepInterval.toMillis(), sweepInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // ---- SessionRepository ---------------------------------------------------
+
+    @Override
+    public MapSession createSession() {
+        MapSession session = new MapSession();
+        session.setMaxInactiveInterval(defaultMaxInactiveInterval);
+        return session;
+    }
+
+    @Override
+    public void save(MapSession session) {
+        // Session id was changed (e.g. session fixation protection): drop the old one
+        if (!session.getId().equals(session.getOriginalId())) {
+            deleteById(session.getOriginalId());
+        }
+        loaded.put(session.getId(), new MapSession(session));
+        deleted.remove(session.getId());
+        dirty.add(session.getId());
+        oldestPendingAtMillis.compareAndSet(0, System.currentTimeMillis());
+    }
+
+    @Override
+    public MapSession findById(String id) {
+        MapSession session = loaded.get(id);
+        if (session == null) {
+            if (deleted.contains(id)) {
+                return null;
+            }
+            session = loadFromDisk(id);
+            if (session == null) {
+                return null;
+            }
+            MapSession raced = loaded.putIfAbsent(id, session);
+            if (raced != null) {
+                session = raced;
+            }
+        }
+
+        if (session.isExpired()) {
+            deleteById(id);
+            return null;
+        }
+        return new MapSession(session);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        loaded.remove(id);
+        dirty.remove(id);
+        // Always queue a tombstone: a flush running right now may already have taken this session
+        // out of dirty and be about to append it, before it shows up in the index
+        deleted.add(id);
+        oldestPendingAtMillis.compareAndSet(0, System.currentTimeMillis());
+    }
+
+    // ---- disk ---------------------------------------------------------------
+
+    private FileChannel openChannel() throws IOException {
+        return FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    // Scan the log once and remember where the latest live record of each session is
+    private void buildIndex() throws IOException {
+        long offset = 0;
+        long validLength = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(logFile))) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream(512);
+            int b;
+            while ((b = in.read()) != -1) {
+                line.write(b);
+                if (b != '\n') {
+                    continue;
+                }
+                byte[] bytes = line.toByteArray();
+                line.reset();
+                indexLine(bytes, offset);
+                offset += bytes.length;
+                validLength = offset;
+            }
+        }
+
+        // A crash mid-write can leave a torn last line; cut it off so appends start clean
+        if (channel.size() > validLength) {
+            log.warn("Truncating {} bytes of incomplete session data in {}", channel.size() - validLength, logFile);
+            channel.truncate(validLength);
+        }
+        log.info("Session store {}: {} live sessions indexed", logFile, index.size());
+    }
+
+    private void indexLine(byte[] bytes, long offset) {
+        try {
+            SessionRecord record = recordReader.readValue(bytes);
+            if (index.remove(record.id()) != null) {
+                deadRecords++; // Superseded by this line
+            }
+            if (record.deleted() || expiresAt(record) <= System.currentTimeMillis()) {
+                deadRecords++; // Tombstone or already expired
+                return;
+            }
+            index.put(record.id(), new IndexEntry(offset, bytes.length, expiresAt(record)));
+        } catch (IOException e) {
+            deadRecords++; // Unreadable line, skipped and removed by the next compaction
+        }
+    }
+
+    private MapSession loadFromDisk(String id) {
+        fileLock.readLock().lock();
+        try {
+            IndexEntry entry = index.get(id);
+            if (entry == null || entry.expiresAtMillis() <= System.currentTimeMillis()) {
+                return null;
+            }
+            return toSession(recordReader.readValue(read(entry)));
+        } catch (IOException e) {
+            log.warn("Could not read session {} from {}: {}", id, logFile, e.getMessage());
+            return null;
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    private byte[] read(IndexEntry entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(entry.length());
+        long position = entry.offset();
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position);
+            if (n < 0) {
+                throw new IOException("Unexpected end of session log");
+            }
+            position += n;
+        }
+        return buffer.array();
+    }
+
+    private void write(FileChannel target, byte[] bytes, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            position += target.write(buffer, position);
+        }
+    }
+
+    // Append all pending changes as one batch
+    public void flush() throws IOException {
+        if (dirty.isEmpty() && deleted.isEmpty()) {
+            lastFlushAt = Instant.now();
+            return;
+        }
+
+        // Changes arriving while this batch is written count as pending from now
+        long flushStart = System.currentTimeMillis();
+        fileLock.writeLock().lock();
+        long start = -1;
+        Set<String> drained = new HashSet<>();
+        Set<String> tombstones = new HashSet<>();
+        try {
+            oldestPendingAtMillis.set(0);
+            start = channel.size();
+            ByteArrayOutputStream batch = new ByteArrayOutputStream();
+            Map<String, IndexEntry> written = new HashMap<>();
+
+            for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+                String id = it.next();
+                it.remove();
+                drained.add(id);
+                MapSession session = loaded.get(id);
+                if (session == null) {
+                    continue;
+                }
+                SessionRecord record = toRecord(session);
+                byte[] line = toLine(record);
+                written.put(id, new IndexEntry(start + batch.size(), line.length, expiresAt(record)));
+                batch.write(line);
+            }
+
+            for (Iterator<String> it = deleted.iterator(); it.hasNext(); ) {
+                String id = it.next();
+                it.remove();
+                batch.write(toLine(new SessionRecord(id, 0, 0, 0, Map.of(), true)));
+                tombstones.add(id);
+            }
+
+            write(channel, batch.toByteArray(), start);
+            channel.force(false);
+
+            for (String id : written.keySet()) {
+                if (index.containsKey(id)) {
+                    deadRecords++;
+                }
+            }
+            index.putAll(written);
+            for (String id : tombstones) {
+                if (index.remove(id) != null) {
+                    deadRecords++;
+                }
+                deadRecords++; // The tombstone itself
+            }
+            lastFlushAt = Instant.ofEpochMilli(flushStart);
+            lastFlushError = null;
+        } catch (IOException | RuntimeException e) {
+            lastFlushError = e.toString();
+            restorePending(drained, tombstones, start, e);
+            throw e;
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    // Failed flush (caller holds the write lock): cut off whatever part of the batch reached the log
+    // and queue its changes again, so the next flush retries them and deleted sessions stay deleted
+    private void restorePending(Set<String> drained, Set<String> tombstones, long start, Exception failure) {
+        if (start >= 0) {
+            try {
+                channel.truncate(start);
+            } catch (IOException e) {
+                failure.addSuppressed(e);
+            }
+        }
+        for (String id : drained) {
+            if (loaded.containsKey(id)) {
+                dirty.add(id);
+            }
+        }
+        for (String id : tombstones) {
+            if (!loaded.containsKey(id)) { // Not saved again since
+                deleted.add(id);
+            }
+        }
+        if (!dirty.isEmpty() || !deleted.isEmpty()) {
+            oldestPendingAtMillis.compareAndSet(0, System.currentTimeMillis());
+        }
+    }
+
+    // Drop expired sessions, then compact the log if it is mostly dead records
+    public void sweep() throws IOException {
+        long now = System.currentTimeMillis();
+
+        loaded.entrySet().removeIf(e -> {
+            if (e.getValue().isExpired()) {
+                dirty.remove(e.getKey());
+                return true;
+            }
+            return false;
+        });
+
+        fileLock.writeLock().lock();
+        try {
+            index.entrySet().removeIf(e -> {
+                boolean expired = e.getValue().expiresAtMillis() <= now && !loaded.containsKey(e.getKey());
+                if (expired) {
+                    deadRecords++;
+                }
+                return expired;
+            });
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+
+        flush();
+
+        fileLock.writeLock().lock();
+        try {
+            if (deadRecords >= COMPACT_MIN_DEAD_RECORDS && deadRecords > index.size()) {
+                compact();
+            }
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    // Rewrite the log with only the latest record of each live session (caller holds the write lock)
+    private void compact() throws IOException {
+        Path temp = logFile.resolveSibling(logFile.getFileName() + ".compact");
+        Map<String, IndexEntry> compacted = new LinkedHashMap<>();
+
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = 0;
+            for (Map.Entry<String, IndexEntry> e : index.entrySet()) {
+                byte[] line = read(e.getValue());
+                write(out, line, position);
+                compacted.put(e.getKey(), new IndexEntry(position, line.length, e.getValue().expiresAtMillis()));
+                position += line.length;
+            }
+            out.force(true);
+        }
+
+        channel.close();
+        Files.move(temp, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = openChannel();
+
+        log.info("Compacted session store {}: dropped {} dead records, {} live", logFile, deadRecords, compacted.size());
+        index.clear();
+        index.putAll(compacted);
+        deadRecords = 0;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Session flush to {} failed", logFile, e);
+        }
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep();
+        } catch (Exception e) {
+            log.error("Session sweep of {} failed", logFile, e);
+        }
+    }
+
+    // Final flush on shutdown (Spring calls close() when the context stops)
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdown();
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // Saves and deletes not yet appended to the log
+    public int pendingWrites() {
+        return dirty.size() + deleted.size();
+    }
+
+    // When the oldest change still waiting for a flush was made; null if nothing is pending
+    public Instant oldestPendingAt() {
+        long millis = oldestPendingAtMillis.get();
+        return millis == 0 ? null : Instant.ofEpochMilli(millis);
+    }
+
+    // Start of the last flush that succeeded (an idle flush with nothing to write counts)
+    public Instant lastFlushAt() {
+        return lastFlushAt;
+    }
+
+    // Error of the last failed flush, cleared once a batch is written again
+    public String lastFlushError() {
+        return lastFlushError;
+    }
+
+    // Number of live sessions known to the store (memory and disk)
+    public int size() {
+        Set<String> ids = new HashSet<>(index.keySet());
+        ids.addAll(loaded.keySet());
+        ids.removeAll(deleted);
+        return ids.size();
+    }
+
+    // ---- mapping ------------------------------------------------------------
+
+    private SessionRecord toRecord(MapSession session) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (String name : session.getAttributeNames()) {
+            Object value = session.getAttribute(name);
+            // Only simple values survive a restart (userId, username, role); the rest stays in memory
+            if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+                attributes.put(name, value);
+            }
+        }
+        return new SessionRecord(
+                session.getId(),
+                session.getCreationTime().toEpochMilli(),
+                session.getLastAccessedTime().toEpochMilli(),
+                session.getMaxInactiveInterval().toSeconds(),
+                attributes,
+                false
+        );
+    }
+
+    private MapSession toSession(SessionRecord record) {
+        MapSession session = new MapSession(record.id());
+        session.setCreationTime(Instant.ofEpochMilli(record.createdAt()));
+        session.setLastAccessedTime(Instant.ofEpochMilli(record.lastAccessedAt()));
+        session.setMaxInactiveInterval(Duration.ofSeconds(record.maxInactiveSeconds()));
+        if (record.attributes() != null) {
+            record.attributes().forEach(session::setAttribute);
+        }
+        return session;
+    }
+
+    private byte[] toLine(SessionRecord record) throws IOException {
+        byte[] json = recordWriter.writeValueAsBytes(record);
+        byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+        return line;
+    }
+
+    private static long expiresAt(SessionRecord record) {
+        // Negative max inactive interval means the session never expires
+        return record.maxInactiveSeconds() < 0
+                ? Long.MAX_VALUE
+                : record.lastAccessedAt() + record.maxInactiveSeconds() * 1000;
+    }
+}
@@ -3,86 +3,189 @@ package com.example.librarymanagementsystem.repository.impl;
 import com.example.librarymanagementsystem.model.Book;
 import com.example.librarymanagementsystem.repository.BookRepository;
 import com.example.librarymanagementsystem.util.JsonFileHandler;
+import com.example.librarymanagementsystem.util.LibraryEvents;
 import com.example.librarymanagementsystem.util.CacheHelper;
+import com.example.librarymanagementsystem.util.FragmentCache;
+import com.example.librarymanagementsystem.util.PersistentHashMap;
 import com.fasterxml.jackson.core.type.TypeReference;
 import org.springframework.stereotype.Repository;
 import jakarta.annotation.PostConstruct;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.ArrayList;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 @Repository
 public class JsonBookRepository implements BookRepository {
 
     private final JsonFileHandler<Book> fileHandler;
-    private List<Book> books; // In-memory storage
+    // Serialized JSON per book, dropped on every save/delete of that book
+    private final FragmentCache<Book> fragments = new FragmentCache<>(Book.class, Book::getId, FragmentCache.DEFAULT_MAX_BYTES);
+    // In-memory storage: immutable snapshot keyed by id, replaced as a whole on every write
+    private volatile PersistentHashMap<String, Book> books = PersistentHashMap.empty();
+    // Normalized title + author of every book, for O(log n) duplicate checks
+    private volatile TitleAuthorIndex titleAuthorIndex = TitleAuthorIndex.EMPTY;
+    private final Object writeLock = new Object();
 
     public JsonBookRepository(CacheHelper cacheHelper) {
-        this.fileHandler = new JsonFileHandler<>("data/books.json", new TypeReference<List<Book>>() {}, cacheHelper);
+        this.fileHandler = new JsonFileHandler<>("data/books.json", new TypeReference<List<Book>>() {}, cacheHelper, fragments);
     }
 
     @PostConstruct
     public void loadInitialData() {
+        fragments.invalidateAll(); // Every record is replaced
         // Load data once at startup from JSON file
         try {
             List<Book> initialBooks = fileHandler.readFromFile();
-            this.books = new CopyOnWriteArrayList<>(initialBooks); // Thread-safe list
+            this.books = PersistentHashMap.of(initialBooks, Book::getId);
+            TitleAuthorIndex index = TitleAuthorIndex.EMPTY;
+            for (Book book : initialBooks) {
+                index = index.with(book);
+            }
+            this.titleAuthorIndex = index;
         } catch (Exception e) {
             // If file doesn't exist or fails to load, start with empty list
-            this.books = new CopyOnWriteArrayList<>();
+            this.books = PersistentHashMap.empty();
+            this.titleAuthorIndex = TitleAuthorIndex.EMPTY;
         }
     }
 
     @Override
     public List<Book> findAll() {
-        return new ArrayList<>(books); // Return copy to prevent external modification
+        return books.values(); // Read-only snapshot, no copy per call
+    }
+
+    @Override
+    public Iterator<Book> iterateAll() {
+        return books.valueIterator(); // Walks the current snapshot without building a list
     }
 
     @Override
     public Optional<Book> findById(String id) {
-        return books.stream()
-                .filter(book -> book.getId().equals(id))
-                .findFirst();
+        return Optional.ofNullable(books.get(id));
     }
 
     @Override
     public Book save(Book book) {
-        // Remove existing book with same ID for updates
-        books.removeIf(existingBook -> existingBook.getId().equals(book.getId()));
-        books.add(book);
+        LibraryEvents.RepositoryOperation event = LibraryEvents.RepositoryOperation.start();
+        // Insert or replace by ID; readers keep whichever snapshot they already hold
+        synchronized (writeLock) {
+            books = books.put(book.getId(), book);
+            fragments.invalidate(book.getId());
+            titleAuthorIndex = titleAuthorIndex.with(book);
+        }
+        event.finish("save", "Book", 0, 1);
         return book;
     }
 
+    @Override
+    public List<Book> saveAll(List<Book> batch) {
+        LibraryEvents.RepositoryOperation event = LibraryEvents.RepositoryOperation.start();
+        // Build the next snapshot off to the side, then publish it once for the whole batch
+        synchronized (writeLock) {
+            PersistentHashMap<String, Book> nextBooks = books;
+            TitleAuthorIndex nextIndex = titleAuthorIndex;
+            for (Book book : batch) {
+                nextBooks = nextBooks.put(book.getId(), book);
+                nextIndex = nextIndex.with(book);
+            }
+            books = nextBooks;
+            for (Book book : batch) {
+                fragments.invalidate(book.getId());
+            }
+            titleAuthorIndex = nextIndex;
+        }
+        event.finish("saveAll", "Book", 0, batch.size());
+        return batch;
+    }
+
     @Override
     public void delete(String id) {
-        books.removeIf(book -> book.getId().equals(id));
+        LibraryEvents.RepositoryOperation event = LibraryEvents.RepositoryOperation.start();
+        synchronized (writeLock) {
+            books = books.remove(id);
+            fragments.invalidate(id);
+            titleAuthorIndex = titleAuthorIndex.without(id);
+        }
+        event.finish("delete", "Book", 0, 0);
+    }
+
+    @Override
+    public byte[] serialized(Book book) {
+        return fragments.get(book);
+    }
+
+    @Override
+    public JsonFileHandler.Status fileStatus() {
+        return fileHandler.status();
     }
 
     @Override
     public List<Book> findByTitleContaining(String title) {
         // Case-insensitive search by title
-        return books.stream()
+        LibraryEvents.RepositoryOperation event = LibraryEvents.RepositoryOperation.start();
+        List<Book> snapshot = books.values();
+        List<Book> result = snapshot.stream()
                 .filter(book -> book.getTitle().toLowerCase().contains(title.toLowerCase().trim()))
                 .toList();
+        event.finish("findByTitleContaining", "Book", snapshot.size(), result.size());
+        return result;
     }
 
     @Override
     public List<Book> findByAuthorContaining(String author) {
         // Case-insensitive search by author
-        return books.stream()
+        LibraryEvents.RepositoryOperation event = LibraryEvents.RepositoryOperation.start();
+        List<Book> snapshot = books.values();
+        List<Book> result = snapshot.stream()
                 .filter(book -> book.getAuthor().toLowerCase().contains(author.toLowerCase().trim()))
                 .toList();
+        event.finish("findByAuthorContaining", "Book", snapshot.size(), result.size());
+        return result;
     }
 
     @Override
     public boolean existsByTitleAndAuthor(String title, String author) {
-        // Check for duplicate title + author combination
-        return books.stream()
-                .anyMatch(book ->
-                        book.getTitle().equalsIgnoreCase(title.trim()) &&
-                                book.getAuthor().equalsIgnoreCase(author.trim())
-                );
+        // Check for duplicate title + author combination (index lookup, no scan)
+        return titleAuthorIndex.contains(BookRepository.titleAuthorKey(title, author));
+    }
+
+    // Immutable title+author index. Books are mutated in place on update, so the key each id
+    // was indexed under is remembered to be able to move it later
+    private record TitleAuthorIndex(PersistentHashMap<String, String> keyById,
+                                    PersistentHashMap<String, Integer> countByKey) {
+
+        static final TitleAuthorIndex EMPTY = new TitleAuthorIndex(PersistentHashMap.empty(), PersistentHashMap.empty());
+
+        boolean contains(String key) {
+            return countByKey.containsKey(key);
+        }
+
+        TitleAuthorIndex with(Book book) {
+            String key = BookRepository.titleAuthorKey(book.getTitle(), book.getAuthor());
+            String previous = keyById.get(book.getId());
+            if (key.equals(previous)) {
+                return this;
+            }
+            PersistentHashMap<String, Integer> counts = previous != null ? decrement(countByKey, previous) : countByKey;
+            counts = counts.put(key, counts.containsKey(key) ? counts.get(key) + 1 : 1);
+            return new TitleAuthorIndex(keyById.put(book.getId(), key), counts);
+        }
+
+        TitleAuthorIndex without(String id) {
+            String previous = keyById.get(id);
+            if (previous == null) {
+                return this;
+            }
+            return new TitleAuthorIndex(keyById.remove(id), decrement(countByKey, previous));
+        }
+
+        private static PersistentHashMap<String, Integer> decrement(PersistentHashMap<String, Integer> counts, String key) {
+            Integer count = counts.get(key);
+            if (count == null || count <= 1) {
+                return counts.remove(key);
+            }
+            return counts.put(key, count - 1);
+        }
     }
 }
\ No newline at end of file
@@ -4,84 +4,133 @@ import com.example.librarymanagementsystem.model.Rental;
 import com.example.librarymanagementsystem.model.enums.RentalStatus;
 import com.example.librarymanagementsystem.repository.RentalRepository;
 import com.example.librarymanagementsystem.util.JsonFileHandler;
+import com.example.librarymanagementsystem.util.LibraryEvents;
 import com.example.librarymanagementsystem.util.CacheHelper;
+import com.example.librarymanagementsystem.util.FragmentCache;
+import com.example.librarymanagementsystem.util.PersistentHashMap;
 import com.fasterxml.jackson.core.type.TypeReference;
 import org.springframework.stereotype.Repository;
 import jakarta.annotation.PostConstruct;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.ArrayList;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
 
 @Repository
 public class JsonRentalRepository implements RentalRepository {
 
     private final JsonFileHandler<Rental> fileHandler;
-    private List<Rental> rentals; // In-memory storage
+    // Serialized JSON per rental, dropped on every save/delete of that rental
+    private final FragmentCache<Rental> fragments = new FragmentCache<>(Rental.class, Rental::getId, FragmentCache.DEFAULT_MAX_BYTES);
+    // In-memory storage: immutable snapshot keyed by id, replaced as a whole on every write
+    private volatile PersistentHashMap<String, Rental> rentals = PersistentHashMap.empty();
+    private final Object writeLock = new Object();
+    private volatile long version; // Incremented under writeLock on every write
 
     public JsonRentalRepository(CacheHelper cacheHelper) {
-        this.fileHandler = new JsonFileHandler<>("data/rentals.json", new TypeReference<List<Rental>>() {}, cacheHelper);
+        this.fileHandler = new JsonFileHandler<>("data/rentals.json", new TypeReference<List<Rental>>() {}, cacheHelper, fragments);
     }
 
     @PostConstruct
     public void loadInitialData() {
+        fragments.invalidateAll(); // Every record is replaced
         // Load data once at startup from JSON file
         try {
             List<Rental> initialRentals = fileHandler.readFromFile();
-            this.rentals = new CopyOnWriteArrayList<>(initialRentals); // Thread-safe list
+            this.rentals = PersistentHashMap.of(initialRentals, Rental::getId);
         } catch (Exception e) {
             // If file doesn't exist or fails to load, start with empty list
-            this.rentals = new CopyOnWriteArrayList<>();
+            this.rentals = PersistentHashMap.empty();
         }
     }
 
     @Override
     public List<Rental> findAll() {
-        return new ArrayList<>(rentals); // Return copy to prevent external modification
+        return rentals.values(); // Read-only snapshot, no copy per call
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public JsonFileHandler.Status fileStatus() {
+        return fileHandler.status();
     }
 
     @Override
     public Optional<Rental> findById(String id) {
-        return rentals.stream()
-                .filter(rental -> rental.getId().equals(id))
-                .findFirst();
+        return Optional.ofNullable(rentals.get(id));
     }
 
     @Override
     public Rental save(Rental rental) {
-        // Remove existing rental with same ID for updates
-        rentals.removeIf(existingRental -> existingRental.getId().equals(rental.getId()));
-        rentals.add(rental);
+        LibraryEvents.RepositoryOperation event = LibraryEvents.RepositoryOperation.start();
+        // Insert or replace by ID; readers keep whichever snapshot they already hold
+        synchronized (writeLock) {
+            rentals = rentals.put(rental.getId(), rental);
+            fragments.invalidate(rental.getId());
+            version++;
+        }
+        event.finish("save", "Rental", 0, 1);
         return rental;
     }
 
+    @Override
+    public List<Rental> saveAll(List<Rental> batch) {
+        LibraryEvents.RepositoryOperation event = LibraryEvents.RepositoryOperation.start();
+        // Apply the whole batch to a local snapshot, then publish it once
+        synchronized (writeLock) {
+            PersistentHashMap<String, Rental> next = rentals;
+            for (Rental rental : batch) {
+                next = next.put(rental.getId(), rental);
+            }
+            rentals = next;
+            for (Rental rental : batch) {
+                fragments.invalidate(rental.getId());
+            }
+            version++;
+        }
+        event.finish("saveAll", "Rental", 0, batch.size());
+        return batch;
+    }
+
     @Override
     public void delete(String id) {
-        rentals.removeIf(rental -> rental.getId().equals(id));
+        LibraryEvents.RepositoryOperation event = LibraryEvents.RepositoryOperation.start();
+        synchronized (writeLock) {
+            rentals = rentals.remove(id);
+            fragments.invalidate(id);
+            version++;
+        }
+        event.finish("delete", "Rental", 0, 0);
     }
 
     @Override
     public List<Rental> findByUserId(String userId) {
         // Find all rentals for specific user
-        return rentals.stream()
-                .filter(rental -> rental.getUserId().equals(userId))
-                .toList();
+        return scan("findByUserId", rental -> rental.getUserId().equals(userId));
     }
 
     @Override
     public List<Rental> findByBookId(String bookId) {
         // Find all rentals for specific book
-        return rentals.stream()
-                .filter(rental -> rental.getBookId().equals(bookId))
-                .toList();
+        return scan("findByBookId", rental -> rental.getBookId().equals(bookId));
     }
 
     @Override
     public List<Rental> findActiveRentals() {
         // Filter only active rentals (not returned yet)
-        return rentals.stream()
-                .filter(rental -> rental.getStatus() == RentalStatus.ACTIVE)
-                .toList();
+        return scan("findActiveRentals", rental -> rental.getStatus() == RentalStatus.ACTIVE);
+    }
+
+    // Full scan of the current snapshot, reported to Flight Recorder
+    private List<Rental> scan(String operation, Predicate<Rental> filter) {
+        LibraryEvents.RepositoryOperation event = LibraryEvents.RepositoryOperation.start();
+        List<Rental> snapshot = rentals.values();
+        List<Rental> result = snapshot.stream().filter(filter).toList();
+        event.finish(operation, "Rental", snapshot.size(), result.size());
+        return result;
     }
 }
\ No newline at end of file
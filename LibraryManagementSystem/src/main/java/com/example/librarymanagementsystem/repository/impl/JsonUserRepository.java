@@ -3,101 +3,127 @@ package com.example.librarymanagementsystem.repository.impl;
 import com.example.librarymanagementsystem.model.User;
 import com.example.librarymanagementsystem.repository.UserRepository;
 import com.example.librarymanagementsystem.util.JsonFileHandler;
+import com.example.librarymanagementsystem.util.LibraryEvents;
 import com.example.librarymanagementsystem.util.CacheHelper;
+import com.example.librarymanagementsystem.util.FragmentCache;
+import com.example.librarymanagementsystem.util.PersistentHashMap;
 import com.fasterxml.jackson.core.type.TypeReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 import jakarta.annotation.PostConstruct;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.ArrayList;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 @Repository
 public class JsonUserRepository implements UserRepository {
 
+    private static final Logger log = LoggerFactory.getLogger(JsonUserRepository.class);
+
     private final JsonFileHandler<User> fileHandler;
-    private List<User> users; // In-memory storage
+    // Serialized JSON per user, dropped on every save/delete of that user
+    private final FragmentCache<User> fragments = new FragmentCache<>(User.class, User::getId, FragmentCache.DEFAULT_MAX_BYTES);
+    // In-memory storage: immutable snapshot keyed by id, replaced as a whole on every write
+    private volatile PersistentHashMap<String, User> users = PersistentHashMap.empty();
+    private final Object writeLock = new Object();
+    private volatile long version; // Incremented under writeLock on every write
 
     public JsonUserRepository(CacheHelper cacheHelper) {
-        this.fileHandler = new JsonFileHandler<>("data/users.json", new TypeReference<List<User>>() {}, cacheHelper);
+        this.fileHandler = new JsonFileHandler<>("data/users.json", new TypeReference<List<User>>() {}, cacheHelper, fragments);
     }
 
     @PostConstruct
     public void loadInitialData() {
+        fragments.invalidateAll(); // Every record is replaced
         try {
-            System.out.println("Attempting to load user data...");
             List<User> initialUsers = fileHandler.readFromFile();
-            this.users = new CopyOnWriteArrayList<>(initialUsers);
-            System.out.println("Loaded " + users.size() + " users successfully");
-
-            // Debug the first user's raw data
-            this.users = new CopyOnWriteArrayList<>(initialUsers);
-            System.out.println("Loaded " + users.size() + " users successfully");
-            System.out.println("Users empty? " + users.isEmpty());
-
-            if (!users.isEmpty()) {
-                User firstUser = users.get(0);
-                System.out.println("First user debug:");
-                System.out.println("  ID: '" + firstUser.getId() + "'");
-                System.out.println("  Username: '" + firstUser.getUsername() + "'");
-                System.out.println("  Email: '" + firstUser.getEmail() + "'");
-                System.out.println("  Role: '" + firstUser.getRole() + "'");
-            }
-
-            System.out.println("Loaded " + users.size() + " users successfully");
+            this.users = PersistentHashMap.of(initialUsers, User::getId);
             if (users.isEmpty()) {
-                System.out.println("WARNING: No users loaded! This will break authentication.");
+                log.warn("No users loaded; only the seeded admin will be able to log in");
             } else {
-                User firstUser = users.get(0);
-                System.out.println("First user debug:");
-                // ... debug output
+                log.info("Loaded {} users", users.size());
             }
-
         } catch (Exception e) {
-            System.out.println("Failed to load user data: " + e.getMessage());
-            e.printStackTrace();
-            this.users = new CopyOnWriteArrayList<>();
+            log.error("Failed to load user data", e);
+            this.users = PersistentHashMap.empty();
         }
     }
 
     @Override
     public List<User> findAll() {
-        return new ArrayList<>(users); // Return copy to prevent external modification
+        return users.values(); // Read-only snapshot, no copy per call
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public JsonFileHandler.Status fileStatus() {
+        return fileHandler.status();
     }
 
     @Override
     public Optional<User> findById(String id) {
-        return users.stream()
-                .filter(user -> user.getId().equals(id))
-                .findFirst();
+        return Optional.ofNullable(users.get(id));
     }
 
     @Override
     public Optional<User> findByUsername(String username) {
-        return users.stream()
-                .filter(user -> user.getUsername().equalsIgnoreCase(username.trim()))
-                .findFirst();
+        LibraryEvents.RepositoryOperation event = LibraryEvents.RepositoryOperation.start();
+        String wanted = username.trim();
+        int scanned = 0;
+        for (User user : users.values()) {
+            scanned++;
+            if (user.getUsername().equalsIgnoreCase(wanted)) {
+                event.finish("findByUsername", "User", scanned, 1);
+                return Optional.of(user);
+            }
+        }
+        event.finish("findByUsername", "User", scanned, 0);
+        return Optional.empty();
     }
 
     @Override
     public Optional<User> findByEmail(String email) {
-        return users.stream()
-                .filter(user -> user.getEmail().equalsIgnoreCase(email.trim()))
-                .findFirst();
+        LibraryEvents.RepositoryOperation event = LibraryEvents.RepositoryOperation.start();
+        String wanted = email.trim();
+        int scanned = 0;
+        for (User user : users.values()) {
+            scanned++;
+            if (user.getEmail().equalsIgnoreCase(wanted)) {
+                event.finish("findByEmail", "User", scanned, 1);
+                return Optional.of(user);
+            }
+        }
+        event.finish("findByEmail", "User", scanned, 0);
+        return Optional.empty();
     }
 
     @Override
     public User save(User user) {
-        // Remove existing user with same ID if updating
-        users.removeIf(existingUser -> existingUser.getId().equals(user.getId()));
-        users.add(user);
+        LibraryEvents.RepositoryOperation event = LibraryEvents.RepositoryOperation.start();
+        // Insert or replace by ID; readers keep whichever snapshot they already hold
+        synchronized (writeLock) {
+            users = users.put(user.getId(), user);
+            fragments.invalidate(user.getId());
+            version++;
+        }
+        event.finish("save", "User", 0, 1);
         return user;
     }
 
     @Override
     public void delete(String id) {
-        users.removeIf(user -> user.getId().equals(id));
+        LibraryEvents.RepositoryOperation event = LibraryEvents.RepositoryOperation.start();
+        synchronized (writeLock) {
+            users = users.remove(id);
+            fragments.invalidate(id);
+            version++;
+        }
+        event.finish("delete", "User", 0, 0);
     }
 
     @Override
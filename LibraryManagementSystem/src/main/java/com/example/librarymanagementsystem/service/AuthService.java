@@ -3,8 +3,12 @@ package com.example.librarymanagementsystem.service;
 import com.example.librarymanagementsystem.model.User;
 import com.example.librarymanagementsystem.model.enums.UserRole;
 import com.example.librarymanagementsystem.repository.UserRepository;
+import com.example.librarymanagementsystem.util.BoundedPasswordEncoder;
+import com.example.librarymanagementsystem.util.SampledLogger;
 import com.example.librarymanagementsystem.util.UuidGenerator;
 import com.example.librarymanagementsystem.util.ValidationHelper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -16,15 +20,26 @@ import java.util.Optional;
 @Service
 public class AuthService {
 
+    // One event per login at most; never logs passwords or hashes
+    private static final SampledLogger log = SampledLogger.of(AuthService.class, 20);
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final ValidationHelper validationHelper;  // Add this line
+    // Login attempts by result (library.logins, tag result=success|failure)
+    private final Counter loginSuccesses;
+    private final Counter loginFailures;
 
     // Constructor injection - Spring finds and injects all dependencies
-    public AuthService(UserRepository userRepository, ValidationHelper validationHelper, PasswordEncoder passwordEncoder) {
+    public AuthService(UserRepository userRepository, ValidationHelper validationHelper, PasswordEncoder passwordEncoder,
+                       MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.validationHelper = validationHelper;
         this.passwordEncoder = passwordEncoder;  // Use injected encoder, don't create new one
+        this.loginSuccesses = Counter.builder("library.logins").tag("result", "success")
+                .description("Login attempts").register(meterRegistry);
+        this.loginFailures = Counter.builder("library.logins").tag("result", "failure")
+                .description("Login attempts").register(meterRegistry);
     }
 
     // User login - validate credentials
@@ -33,24 +48,37 @@ public class AuthService {
 
         if (userOpt.isPresent()) {
             User user = userOpt.get();
-            System.out.println("Found user: " + user.getUsername());
-            System.out.println("Stored hash: " + user.getPasswordHash());
-            System.out.println("Input password: " + password);
-
             boolean matches = passwordEncoder.matches(password, user.getPasswordHash());
-            System.out.println("Password matches: " + matches);
-
-
 
             if (matches) {
+                rehashIfOutdated(user, password);
+                loginSuccesses.increment();
+                log.atDebug("login.success").addKeyValue("userId", user.getId()).log("Login succeeded");
                 return Optional.of(user);
             }
+            log.atInfo("login.failure").addKeyValue("username", username).addKeyValue("reason", "bad_password")
+                    .log("Login failed");
         } else {
-            System.out.println("User not found");
+            log.atInfo("login.failure").addKeyValue("username", username).addKeyValue("reason", "unknown_user")
+                    .log("Login failed");
         }
+        loginFailures.increment();
         return Optional.empty();
     }
 
+    // Re-hash with the current cost factor when the stored hash was made with a weaker one
+    private void rehashIfOutdated(User user, String password) {
+        if (!passwordEncoder.upgradeEncoding(user.getPasswordHash())) {
+            return;
+        }
+        try {
+            user.setPasswordHash(passwordEncoder.encode(password));
+            userRepository.save(user);
+        } catch (BoundedPasswordEncoder.SaturatedException e) {
+            // Too busy right now; the upgrade will happen on a later login
+        }
+    }
+
     // User registration - create new account
     public User register(String username, String email, String password) {
         // Use ValidationHelper for comprehensive validation
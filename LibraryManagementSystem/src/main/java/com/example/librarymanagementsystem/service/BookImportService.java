@@ -0,0 +1,221 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.model.dto.ImportSummary;
+import com.example.librarymanagementsystem.util.JsonMappers;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// @Service for catalog imports (AdminController /admin/import)
+// Parses the upload row by row (JSON array, NDJSON or CSV) and applies valid rows in batches,
+// so only one batch is ever held in memory no matter how large the file is
+@Service
+public class BookImportService {
+
+    private static final TypeReference<Map<String, String>> ROW_TYPE = new TypeReference<>() { };
+
+    // Supported upload formats
+    public enum Format {
+        JSON, NDJSON, CSV;
+
+        // Explicit format parameter first, then file extension, then content type; null if unknown
+        public static Format detect(String requested, String filename, String contentType) {
+            if (requested != null && !requested.isBlank()) {
+                for (Format format : values()) {
+                    if (format.name().equalsIgnoreCase(requested.trim())) {
+                        return format;
+                    }
+                }
+                return null;
+            }
+
+            String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+            if (name.endsWith(".csv")) return CSV;
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) return NDJSON;
+            if (name.endsWith(".json")) return JSON;
+
+            String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+            if (type.contains("csv")) return CSV;
+            if (type.contains("ndjson") || type.contains("jsonl")) return NDJSON;
+            if (type.contains("json")) return JSON;
+            return null;
+        }
+    }
+
+    // Progress callback for background imports (see ImportJobService)
+    public interface Progress {
+        Progress NONE = new Progress() {
+            @Override
+            public void update(int rowsProcessed, ImportSummary soFar) { }
+
+            @Override
+            public boolean isCancelled() { return false; }
+        };
+
+        // Called after every applied batch and once at the end
+        void update(int rowsProcessed, ImportSummary soFar);
+
+        // Checked before each row; the import stops early and returns what it has so far
+        boolean isCancelled();
+    }
+
+    // A validated row waiting in the current batch
+    private record Row(int number, String title, String author, String genre) { }
+
+    private final BookService bookService;
+    private final ObjectReader jsonRowReader;
+    private final ObjectReader csvRowReader;
+    private final int batchSize;
+    private final int maxErrors;
+
+    public BookImportService(BookService bookService,
+                             @Value("${app.import.batch-size:500}") int batchSize,
+                             @Value("${app.import.max-errors:100}") int maxErrors) {
+        this.bookService = bookService;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        // A JSON array is unwrapped element by element; NDJSON is a plain sequence of root values
+        this.jsonRowReader = JsonMappers.shared().readerFor(ROW_TYPE);
+        // CSV columns are taken from the header line (title, author, genre; others ignored)
+        this.csvRowReader = new CsvMapper().readerFor(ROW_TYPE).with(CsvSchema.emptySchema().withHeader());
+    }
+
+    // Import every row of the stream; IllegalArgumentException if the data is unreadable from the start
+    public ImportSummary importBooks(InputStream in, Format format) throws IOException {
+        return importBooks(in, format, Progress.NONE);
+    }
+
+    public ImportSummary importBooks(InputStream in, Format format, Progress progress) throws IOException {
+        Tally tally = new Tally(maxErrors);
+        List<Row> batch = new ArrayList<>(batchSize);
+        ObjectReader reader = format == Format.CSV ? csvRowReader : jsonRowReader;
+        int rowNumber = 0;
+
+        try (MappingIterator<Map<String, String>> rows = reader.readValues(in)) {
+            while (!progress.isCancelled()) {
+                Map<String, String> data;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    rowNumber++;
+                    data = rows.nextValue();
+                } catch (JsonParseException e) {
+                    // Broken syntax: nothing after this point can be trusted
+                    if (rowNumber <= 1) {
+                        throw new IllegalArgumentException("Invalid " + format + " format: " + e.getOriginalMessage());
+                    }
+                    tally.error(rowNumber, "Unreadable data, import stopped: " + e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    // Row is not a flat object of text fields; skip it and carry on with the next one
+                    tally.error(rowNumber, "Invalid row: " + e.getOriginalMessage());
+                    continue;
+                }
+
+                Row row = validate(rowNumber, data, tally);
+                if (row != null) {
+                    batch.add(row);
+                    if (batch.size() >= batchSize) {
+                        applyBatch(batch, tally);
+                        batch.clear();
+                        progress.update(rowNumber, tally.toSummary());
+                    }
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // Could not even open the stream as the requested format
+            throw new IllegalArgumentException("Invalid " + format + " format: " + e.getOriginalMessage());
+        }
+
+        applyBatch(batch, tally);
+        ImportSummary summary = tally.toSummary();
+        progress.update(rowNumber, summary);
+        return summary;
+    }
+
+    private Row validate(int number, Map<String, String> data, Tally tally) {
+        if (data == null) {
+            tally.error(number, "Empty row");
+            return null;
+        }
+        String title = data.get("title");
+        String author = data.get("author");
+        String genre = data.get("genre");
+
+        if (title == null || title.trim().isEmpty()) {
+            tally.error(number, "Missing title field");
+            return null;
+        }
+        if (author == null || author.trim().isEmpty()) {
+            tally.error(number, "Missing author field");
+            return null;
+        }
+        return new Row(number, title.trim(), author.trim(),
+                genre != null && !genre.trim().isEmpty() ? genre.trim() : null);
+    }
+
+    // One bulk insert per batch; rows that are already in the catalog (or repeated) count as skipped
+    private void applyBatch(List<Row> batch, Tally tally) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Book> candidates = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            Book book = new Book();
+            book.setTitle(row.title());
+            book.setAuthor(row.author());
+            book.setGenre(row.genre());
+            candidates.add(book);
+        }
+
+        try {
+            int added = bookService.addBooks(candidates).size();
+            tally.added += added;
+            tally.skipped += batch.size() - added;
+        } catch (RuntimeException e) {
+            for (Row row : batch) {
+                tally.error(row.number(), e.getMessage());
+            }
+        }
+    }
+
+    // Running counts; keeps at most maxErrors messages but counts all of them
+    private static final class Tally {
+        private final int maxErrors;
+        private final List<String> errors = new ArrayList<>();
+        private int added;
+        private int skipped;
+        private int errorCount;
+
+        Tally(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void error(int row, String message) {
+            errorCount++;
+            if (errors.size() < maxErrors) {
+                errors.add("Row " + row + ": " + message);
+            }
+        }
+
+        ImportSummary toSummary() {
+            return new ImportSummary(added, skipped, List.copyOf(errors), errorCount);
+        }
+    }
+}
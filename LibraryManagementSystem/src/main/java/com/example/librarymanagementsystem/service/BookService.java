@@ -4,11 +4,20 @@ import com.example.librarymanagementsystem.model.Book;
 import com.example.librarymanagementsystem.model.enums.BookStatus;
 import com.example.librarymanagementsystem.repository.BookRepository;
 import com.example.librarymanagementsystem.repository.RentalRepository;
+import com.example.librarymanagementsystem.util.CatalogVersion;
 import com.example.librarymanagementsystem.util.UuidGenerator;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 // @Service marks this as business logic component for Spring
 @Service
@@ -16,12 +25,14 @@ public class BookService {
 
     private final BookRepository bookRepository;
     private final RentalRepository rentalRepository;
+    private final CatalogVersion catalogVersion;
 
     // Constructor injection - Spring provides both repository implementations
     // Demonstrates dependency injection with multiple dependencies
-    public BookService(BookRepository bookRepository, RentalRepository rentalRepository) {
+    public BookService(BookRepository bookRepository, RentalRepository rentalRepository, CatalogVersion catalogVersion) {
         this.bookRepository = bookRepository;
         this.rentalRepository = rentalRepository;
+        this.catalogVersion = catalogVersion;
     }
 
     // Get all books with pagination support
@@ -29,22 +40,45 @@ public class BookService {
         return bookRepository.findAll();
     }
 
-    // Find book by ID
+    // Iterate all books of the current catalog snapshot (later writes are not seen)
+    public Iterator<Book> iterateAllBooks() {
+        return bookRepository.iterateAll();
+    }
+
+    // JSON of a catalog book, serialized once and reused until the book changes
+    public byte[] serialized(Book book) {
+        return bookRepository.serialized(book);
+    }
+
+    // Find book by ID (cached; misses are not cached)
+    @Cacheable(cacheNames = "books", key = "#id", unless = "#result == null")
     public Optional<Book> findById(String id) {
         return bookRepository.findById(id);
     }
 
-    // Search books by title (case-insensitive)
+    // Look up many books by id from the primary index; unknown ids are left out
+    public List<Book> findByIds(List<String> ids) {
+        List<Book> books = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            bookRepository.findById(id).ifPresent(books::add);
+        }
+        return books;
+    }
+
+    // Search books by title (case-insensitive, cached per normalized term)
+    @Cacheable(cacheNames = "bookSearches", key = "'title:' + #title.toLowerCase().trim()")
     public List<Book> searchByTitle(String title) {
         return bookRepository.findByTitleContaining(title);
     }
 
-    // Search books by author (case-insensitive)
+    // Search books by author (case-insensitive, cached per normalized term)
+    @Cacheable(cacheNames = "bookSearches", key = "'author:' + #author.toLowerCase().trim()")
     public List<Book> searchByAuthor(String author) {
         return bookRepository.findByAuthorContaining(author);
     }
 
-    // Add new book (admin only)
+    // Add new book (admin only) - a new book can match any cached search
+    @CacheEvict(cacheNames = "bookSearches", allEntries = true)
     public Book addBook(String title, String author, String genre) {
         // Business rule: check for duplicate title + author combination
         if (bookRepository.existsByTitleAndAuthor(title, author)) {
@@ -58,10 +92,43 @@ public class BookService {
                 genre != null ? genre.trim() : null
         );
 
-        return bookRepository.save(newBook);
+        Book saved = bookRepository.save(newBook);
+        catalogVersion.bump();
+        return saved;
+    }
+
+    // Add many books at once (imports). Duplicates - against the catalog or earlier in the same
+    // batch - are left out; everything else is inserted as one repository write
+    @CacheEvict(cacheNames = "bookSearches", allEntries = true)
+    public List<Book> addBooks(List<Book> candidates) {
+        Set<String> seen = new HashSet<>();
+        List<Book> accepted = new ArrayList<>(candidates.size());
+
+        for (Book candidate : candidates) {
+            String key = BookRepository.titleAuthorKey(candidate.getTitle(), candidate.getAuthor());
+            if (!seen.add(key) || bookRepository.existsByTitleAndAuthor(candidate.getTitle(), candidate.getAuthor())) {
+                continue;
+            }
+            accepted.add(new Book(
+                    UuidGenerator.generate(),
+                    candidate.getTitle().trim(),
+                    candidate.getAuthor().trim(),
+                    candidate.getGenre() != null ? candidate.getGenre().trim() : null
+            ));
+        }
+
+        if (!accepted.isEmpty()) {
+            bookRepository.saveAll(accepted);
+            catalogVersion.bump();
+        }
+        return accepted;
     }
 
     // Update existing book (admin only)
+    @Caching(
+            put = @CachePut(cacheNames = "books", key = "#id"),
+            evict = @CacheEvict(cacheNames = "bookSearches", allEntries = true)
+    )
     public Book updateBook(String id, String title, String author, String genre) {
         Optional<Book> existingBook = bookRepository.findById(id);
         if (existingBook.isEmpty()) {
@@ -73,10 +140,16 @@ public class BookService {
         book.setAuthor(author.trim());
         book.setGenre(genre != null ? genre.trim() : null);
 
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        catalogVersion.bump();
+        return saved;
     }
 
     // Delete book (admin only)
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "books", key = "#id"),
+            @CacheEvict(cacheNames = "bookSearches", allEntries = true)
+    })
     public void deleteBook(String id) {
         Optional<Book> book = bookRepository.findById(id);
         if (book.isEmpty()) {
@@ -89,6 +162,7 @@ public class BookService {
         }
 
         bookRepository.delete(id);
+        catalogVersion.bump();
     }
 
     // Get only available books for rental
@@ -0,0 +1,167 @@
+package com.example.librarymanagementsystem.service;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// @Service managing one JDK Flight Recorder recording for /admin/jfr
+// Picks up the JVM's own events plus the Library events (util.LibraryEvents). The recording
+// keeps at most app.jfr.max-age of data on disk; a download while it runs is a snapshot dump,
+// after a stop it is a copy of the file written at stop. Only that latest file is kept; every
+// download gets its own file, so a later stop or download cannot delete one still being sent
+@Service
+public class FlightRecordingService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecordingService.class);
+
+    // Thrown on start while running, or stop while stopped; the controller turns it into 409
+    public static class RecordingStateException extends RuntimeException {
+        public RecordingStateException(String message) {
+            super(message);
+        }
+    }
+
+    private final Duration maxAge;
+    private Recording recording;
+    private Path latestFile;
+
+    public FlightRecordingService(@Value("${app.jfr.max-age-minutes:30}") long maxAgeMinutes,
+                                  @Value("${app.jfr.continuous:false}") boolean continuous,
+                                  @Value("${app.jfr.settings:default}") String settings) {
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        if (continuous) {
+            start(settings);
+        }
+    }
+
+    // settings: "default" (about 1% overhead) or "profile" (more detail, meant for short sessions)
+    public synchronized Map<String, Object> start(String settings) {
+        if (isRunning()) {
+            throw new RecordingStateException("A recording is already running");
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown recording settings: " + settings);
+        }
+        Recording started = new Recording(configuration);
+        started.setName("library");
+        started.setToDisk(true);
+        started.setMaxAge(maxAge);
+        started.start();
+        recording = started;
+        log.atInfo().addKeyValue("settings", settings).addKeyValue("maxAgeMinutes", maxAge.toMinutes())
+                .log("Flight recording started");
+        return status();
+    }
+
+    // Stop the recording and keep its data as the latest file
+    public synchronized Path stop() {
+        if (!isRunning()) {
+            throw new RecordingStateException("No recording is running");
+        }
+        Path file = null;
+        try {
+            file = newFile();
+            recording.stop();
+            recording.dump(file);
+            replaceLatest(file);
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException("Failed to write recording", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        } finally {
+            recording.close();
+            recording = null;
+        }
+        log.atInfo().addKeyValue("file", latestFile).log("Flight recording stopped");
+        return latestFile;
+    }
+
+    // Snapshot of the running recording, or a copy of the last stopped one; null if there is neither
+    // The file belongs to the caller, who deletes it once sent
+    public synchronized Path download() {
+        if (!isRunning() && latestFile == null) {
+            return null;
+        }
+        Path file = null;
+        try {
+            file = newFile();
+            if (isRunning()) {
+                recording.dump(file);
+            } else {
+                Files.copy(latestFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return file;
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException("Failed to write recording", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", isRunning());
+        if (recording != null) {
+            status.put("startTime", recording.getStartTime());
+            status.put("maxAge", recording.getMaxAge());
+            status.put("sizeBytes", recording.getSize());
+        }
+        status.put("fileAvailable", latestFile != null);
+        return status;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        replaceLatest(null);
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    private static Path newFile() throws IOException {
+        return Files.createTempFile("library-", ".jfr");
+    }
+
+    private void replaceLatest(Path file) {
+        deleteQuietly(latestFile);
+        latestFile = file;
+    }
+
+    public static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.atWarn().addKeyValue("file", file).log("Could not delete recording file");
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.model.dto.ImportJobStatus;
+import com.example.librarymanagementsystem.model.dto.ImportSummary;
+import com.example.librarymanagementsystem.util.UuidGenerator;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// @Service running catalog imports in the background (POST /admin/import?async=true)
+// Jobs go onto a small bounded executor; when it is full new jobs are refused right away
+// instead of piling up. Status is kept in memory for a while after a job finishes
+@Service
+public class ImportJobService {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    // Thrown when the job queue is full; the controller turns it into 503
+    public static class QueueFullException extends RuntimeException {
+        public QueueFullException(String message) {
+            super(message);
+        }
+    }
+
+    private final BookImportService bookImportService;
+    private final ThreadPoolExecutor executor;
+    private final Duration retention;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobService(BookImportService bookImportService,
+                            @Value("${app.import.jobs.threads:1}") int threads,
+                            @Value("${app.import.jobs.queue-capacity:4}") int queueCapacity,
+                            @Value("${app.import.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.bookImportService = bookImportService;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "book-import-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    // Queue an import of a file the caller has already copied; the job deletes it when done
+    public ImportJobStatus submit(Path file, long size, BookImportService.Format format) {
+        purgeFinished();
+
+        Job job = new Job(UuidGenerator.generate(), file, size, format);
+        jobs.put(job.id, job);
+        try {
+            job.future = executor.submit(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            deleteQuietly(file);
+            throw new QueueFullException("Too many imports in progress, please try again later");
+        }
+        return job.toStatus();
+    }
+
+    public Optional<ImportJobStatus> getStatus(String id) {
+        Job job = jobs.get(id);
+        return job == null ? Optional.empty() : Optional.of(job.toStatus());
+    }
+
+    // Ask a job to stop; rows already applied stay imported
+    public Optional<ImportJobStatus> cancel(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            return Optional.empty();
+        }
+
+        job.cancelled = true;
+        // Still waiting in the queue: it will never run, so finish it here
+        Future<?> future = job.future;
+        if (job.state == State.QUEUED && future != null && future.cancel(false)) {
+            job.finish(State.CANCELLED);
+            deleteQuietly(job.file);
+        }
+        return Optional.of(job.toStatus());
+    }
+
+    private void run(Job job) {
+        if (job.cancelled) {
+            job.finish(State.CANCELLED);
+            deleteQuietly(job.file);
+            return;
+        }
+
+        job.start();
+        try (InputStream in = new CountingInputStream(Files.newInputStream(job.file), job.bytesRead)) {
+            job.summary = bookImportService.importBooks(in, job.format, job);
+            job.finish(job.cancelled ? State.CANCELLED : State.COMPLETED);
+        } catch (IllegalArgumentException e) {
+            job.error = e.getMessage();
+            job.finish(State.FAILED);
+        } catch (Exception e) {
+            job.error = "Import failed: " + e.getMessage();
+            job.finish(State.FAILED);
+        } finally {
+            deleteQuietly(job.file);
+        }
+    }
+
+    // Forget finished jobs older than the retention period
+    private void purgeFinished() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Temp directory is cleaned by the OS eventually
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(job -> job.cancelled = true);
+        executor.shutdownNow();
+    }
+
+    // ---- job ------------------------------------------------------------------
+
+    // Mutable state of one import; written by the worker thread, read by status requests
+    private static final class Job implements BookImportService.Progress {
+        private final String id;
+        private final Path file;
+        private final long totalBytes;
+        private final BookImportService.Format format;
+        private final Instant submittedAt = Instant.now();
+        private final AtomicLong bytesRead = new AtomicLong();
+
+        private volatile State state = State.QUEUED;
+        private volatile boolean cancelled;
+        private volatile Future<?> future;
+        private volatile int rowsProcessed;
+        private volatile ImportSummary summary;
+        private volatile String error;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile long startNanos;
+        private volatile long elapsedNanos;
+
+        Job(String id, Path file, long totalBytes, BookImportService.Format format) {
+            this.id = id;
+            this.file = file;
+            this.totalBytes = totalBytes;
+            this.format = format;
+        }
+
+        void start() {
+            startedAt = Instant.now();
+            startNanos = System.nanoTime();
+            state = State.RUNNING;
+        }
+
+        void finish(State finalState) {
+            if (startNanos != 0) {
+                elapsedNanos = System.nanoTime() - startNanos;
+            }
+            finishedAt = Instant.now();
+            state = finalState;
+        }
+
+        @Override
+        public void update(int rows, ImportSummary soFar) {
+            rowsProcessed = rows;
+            summary = soFar;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        ImportJobStatus toStatus() {
+            State current = state;
+            long read = bytesRead.get();
+            long elapsed = current == State.RUNNING ? System.nanoTime() - startNanos : elapsedNanos;
+            double seconds = elapsed / 1_000_000_000.0;
+
+            ImportJobStatus status = new ImportJobStatus();
+            status.setId(id);
+            status.setState(current.name());
+            status.setFormat(format.name());
+            status.setRowsProcessed(rowsProcessed);
+            status.setBytesRead(read);
+            status.setTotalBytes(totalBytes);
+            status.setRowsPerSecond(seconds > 0 ? rowsProcessed / seconds : 0.0);
+            // Bytes are a better progress measure than rows: the total row count is unknown
+            if (current == State.RUNNING && read > 0 && totalBytes > read) {
+                status.setEtaSeconds((long) Math.ceil(seconds * (totalBytes - read) / read));
+            }
+            status.setSubmittedAt(submittedAt);
+            status.setStartedAt(startedAt);
+            status.setFinishedAt(finishedAt);
+            status.setSummary(summary);
+            status.setError(error);
+            return status;
+        }
+    }
+
+    // Counts bytes as the parser pulls them, for progress and ETA
+    private static final class CountingInputStream extends FilterInputStream {
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count.addAndGet(skipped);
+            return skipped;
+        }
+    }
+}
@@ -3,34 +3,62 @@ package com.example.librarymanagementsystem.service;
 import com.example.librarymanagementsystem.model.Book;
 import com.example.librarymanagementsystem.model.Rental;
 import com.example.librarymanagementsystem.model.User;
+import com.example.librarymanagementsystem.model.dto.RentalWithBook;
 import com.example.librarymanagementsystem.model.enums.BookStatus;
 import com.example.librarymanagementsystem.model.enums.RentalStatus;
 import com.example.librarymanagementsystem.repository.BookRepository;
 import com.example.librarymanagementsystem.repository.RentalRepository;
 import com.example.librarymanagementsystem.repository.UserRepository;
+import com.example.librarymanagementsystem.util.CatalogVersion;
+import com.example.librarymanagementsystem.util.StripedLocks;
 import com.example.librarymanagementsystem.util.UuidGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 // @Service for rental business logic
 @Service
 public class RentalService {
 
+    // Rental date, then id for rentals started in the same instant
+    private static final Comparator<Rental> CHRONOLOGICAL = Comparator
+            .comparing(Rental::getRentDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Rental::getId);
+
     private final RentalRepository rentalRepository;
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
+    private final CatalogVersion catalogVersion;
+    // Business counters, one increment per book
+    private final Counter booksRented;
+    private final Counter booksReturned;
 
     // Maximum rentals per user from business rules
     private static final int MAX_RENTALS_PER_USER = 5;
 
+    // Per-user and per-book locks for the check-then-write rental paths
+    private final StripedLocks locks = new StripedLocks(64);
+
     // Constructor injection with three repository dependencies
-    public RentalService(RentalRepository rentalRepository, BookRepository bookRepository, UserRepository userRepository) {
+    public RentalService(RentalRepository rentalRepository, BookRepository bookRepository,
+                         UserRepository userRepository, CatalogVersion catalogVersion, MeterRegistry meterRegistry) {
         this.rentalRepository = rentalRepository;
         this.bookRepository = bookRepository;
         this.userRepository = userRepository;
+        this.catalogVersion = catalogVersion;
+        this.booksRented = Counter.builder("library.books.rented")
+                .description("Books rented (single and batch)").register(meterRegistry);
+        this.booksReturned = Counter.builder("library.books.returned")
+                .description("Books returned (single and batch)").register(meterRegistry);
     }
 
     // Rent a book to a user
@@ -41,41 +69,85 @@ public class RentalService {
             throw new RuntimeException("User not found");
         }
 
-        // Validate book exists
-        Optional<Book> bookOpt = bookRepository.findById(bookId);
-        if (bookOpt.isEmpty()) {
-            throw new RuntimeException("Book not found");
-        }
+        // Lock user (rental limit) and book (availability) so concurrent rentals cannot both pass the checks
+        try (StripedLocks.Held ignored = locks.lockAll(List.of(userKey(userId), bookKey(bookId)))) {
+            // Validate book exists
+            Optional<Book> bookOpt = bookRepository.findById(bookId);
+            if (bookOpt.isEmpty()) {
+                throw new RuntimeException("Book not found");
+            }
+
+            Book book = bookOpt.get();
+
+            // Business rule: book must be available
+            if (book.getStatus() != BookStatus.AVAILABLE) {
+                throw new RuntimeException("Book is not available for rental");
+            }
 
-        Book book = bookOpt.get();
+            // Business rule: check rental limit per user
+            if (countActiveRentals(userId) >= MAX_RENTALS_PER_USER) {
+                throw new RuntimeException("User has reached maximum rental limit of " + MAX_RENTALS_PER_USER + " books");
+            }
 
-        // Business rule: book must be available
-        if (book.getStatus() != BookStatus.AVAILABLE) {
-            throw new RuntimeException("Book is not available for rental");
+            // Create rental record
+            Rental rental = new Rental(
+                    UuidGenerator.generate(),
+                    userId,
+                    bookId
+            );
+
+            // Update book status to rented
+            book.setStatus(BookStatus.RENTED);
+            bookRepository.save(book);
+            catalogVersion.bump();
+
+            // Save rental record
+            Rental saved = rentalRepository.save(rental);
+            booksRented.increment();
+            return saved;
         }
+    }
 
-        // Business rule: check rental limit per user
-        List<Rental> userActiveRentals = rentalRepository.findByUserId(userId).stream()
-                .filter(rental -> rental.getStatus() == RentalStatus.ACTIVE)
-                .toList();
+    // Rent several books at once (checkout cart): all succeed or none do
+    public List<Rental> rentBooks(String userId, List<String> bookIds) {
+        List<String> ids = requireDistinctIds(bookIds);
 
-        if (userActiveRentals.size() >= MAX_RENTALS_PER_USER) {
-            throw new RuntimeException("User has reached maximum rental limit of " + MAX_RENTALS_PER_USER + " books");
+        // Validate user exists
+        if (userRepository.findById(userId).isEmpty()) {
+            throw new RuntimeException("User not found");
         }
 
-        // Create rental record
-        Rental rental = new Rental(
-                UuidGenerator.generate(),
-                userId,
-                bookId
-        );
+        try (StripedLocks.Held ignored = locks.lockAll(lockKeys(userId, ids))) {
+            // Business rule: the whole cart must fit within the rental limit
+            long active = countActiveRentals(userId);
+            if (active + ids.size() > MAX_RENTALS_PER_USER) {
+                throw new RuntimeException("Renting " + ids.size() + " books would exceed the maximum rental limit of "
+                        + MAX_RENTALS_PER_USER + " books (" + active + " already rented)");
+            }
 
-        // Update book status to rented
-        book.setStatus(BookStatus.RENTED);
-        bookRepository.save(book);
+            // Validate every book before changing anything
+            List<Book> books = new ArrayList<>(ids.size());
+            for (String bookId : ids) {
+                Book book = bookRepository.findById(bookId)
+                        .orElseThrow(() -> new RuntimeException("Book not found: " + bookId));
+                if (book.getStatus() != BookStatus.AVAILABLE) {
+                    throw new RuntimeException("Book is not available for rental: " + bookId);
+                }
+                books.add(book);
+            }
 
-        // Save rental record
-        return rentalRepository.save(rental);
+            // Apply: one write per repository
+            List<Rental> rentals = new ArrayList<>(books.size());
+            for (Book book : books) {
+                book.setStatus(BookStatus.RENTED);
+                rentals.add(new Rental(UuidGenerator.generate(), userId, book.getId()));
+            }
+            bookRepository.saveAll(books);
+            catalogVersion.bump();
+            List<Rental> saved = rentalRepository.saveAll(rentals);
+            booksRented.increment(saved.size());
+            return saved;
+        }
     }
 
     // Return a book
@@ -93,30 +165,114 @@ public class RentalService {
             throw new RuntimeException("Only the renter can return this book");
         }
 
-        // Business rule: rental must be active
-        if (rental.getStatus() != RentalStatus.ACTIVE) {
-            throw new RuntimeException("Rental is not active");
+        try (StripedLocks.Held ignored = locks.lockAll(List.of(userKey(userId), bookKey(rental.getBookId())))) {
+            // Business rule: rental must be active
+            if (rental.getStatus() != RentalStatus.ACTIVE) {
+                throw new RuntimeException("Rental is not active");
+            }
+
+            // Update rental status
+            rental.setStatus(RentalStatus.CLOSED);
+            rental.setReturnDate(LocalDateTime.now());
+
+            // Update book status back to available
+            Optional<Book> bookOpt = bookRepository.findById(rental.getBookId());
+            if (bookOpt.isPresent()) {
+                Book book = bookOpt.get();
+                book.setStatus(BookStatus.AVAILABLE);
+                bookRepository.save(book);
+                catalogVersion.bump();
+            }
+
+            Rental saved = rentalRepository.save(rental);
+            booksReturned.increment();
+            return saved;
         }
+    }
 
-        // Update rental status
-        rental.setStatus(RentalStatus.CLOSED);
-        rental.setReturnDate(LocalDateTime.now());
+    // Return several of the user's books at once: all succeed or none do
+    public List<Rental> returnBooks(String userId, List<String> bookIds) {
+        List<String> ids = requireDistinctIds(bookIds);
 
-        // Update book status back to available
-        Optional<Book> bookOpt = bookRepository.findById(rental.getBookId());
-        if (bookOpt.isPresent()) {
-            Book book = bookOpt.get();
-            book.setStatus(BookStatus.AVAILABLE);
-            bookRepository.save(book);
+        try (StripedLocks.Held ignored = locks.lockAll(lockKeys(userId, ids))) {
+            // One pass over the user's rentals instead of one lookup per book
+            Map<String, Rental> activeByBook = new HashMap<>();
+            for (Rental rental : rentalRepository.findByUserId(userId)) {
+                if (rental.getStatus() == RentalStatus.ACTIVE) {
+                    activeByBook.put(rental.getBookId(), rental);
+                }
+            }
+
+            List<Rental> rentals = new ArrayList<>(ids.size());
+            for (String bookId : ids) {
+                Rental rental = activeByBook.get(bookId);
+                if (rental == null) {
+                    throw new RuntimeException("No active rental found for book: " + bookId);
+                }
+                rentals.add(rental);
+            }
+
+            // Apply: one write per repository
+            LocalDateTime now = LocalDateTime.now();
+            List<Book> books = new ArrayList<>(ids.size());
+            for (Rental rental : rentals) {
+                rental.setStatus(RentalStatus.CLOSED);
+                rental.setReturnDate(now);
+                bookRepository.findById(rental.getBookId()).ifPresent(book -> {
+                    book.setStatus(BookStatus.AVAILABLE);
+                    books.add(book);
+                });
+            }
+            if (!books.isEmpty()) {
+                bookRepository.saveAll(books);
+                catalogVersion.bump();
+            }
+            List<Rental> saved = rentalRepository.saveAll(rentals);
+            booksReturned.increment(saved.size());
+            return saved;
         }
+    }
 
-        return rentalRepository.save(rental);
+    private long countActiveRentals(String userId) {
+        return rentalRepository.findByUserId(userId).stream()
+                .filter(rental -> rental.getStatus() == RentalStatus.ACTIVE)
+                .count();
     }
 
-    // Get user's active rentals
+    private static List<String> requireDistinctIds(List<String> bookIds) {
+        if (bookIds == null || bookIds.isEmpty()) {
+            throw new RuntimeException("At least one book ID is required");
+        }
+        List<String> ids = List.copyOf(new LinkedHashSet<>(bookIds));
+        if (ids.size() != bookIds.size()) {
+            throw new RuntimeException("Duplicate book IDs in request");
+        }
+        return ids;
+    }
+
+    private static List<String> lockKeys(String userId, List<String> bookIds) {
+        List<String> keys = new ArrayList<>(bookIds.size() + 1);
+        keys.add(userKey(userId));
+        for (String bookId : bookIds) {
+            keys.add(bookKey(bookId));
+        }
+        return keys;
+    }
+
+    private static String userKey(String userId) { return "user:" + userId; }
+
+    private static String bookKey(String bookId) { return "book:" + bookId; }
+
+    // Version of the rental data, changes on every rental write
+    public long getRentalsVersion() {
+        return rentalRepository.version();
+    }
+
+    // Get user's active rentals, oldest first
     public List<Rental> getUserActiveRentals(String userId) {
         return rentalRepository.findByUserId(userId).stream()
                 .filter(rental -> rental.getStatus() == RentalStatus.ACTIVE)
+                .sorted(CHRONOLOGICAL)
                 .toList();
     }
 
@@ -125,8 +281,22 @@ public class RentalService {
         return rentalRepository.findActiveRentals();
     }
 
-    // Get rental history for a user
+    // Get rental history for a user, oldest first (the repository returns rentals in hash order)
     public List<Rental> getUserRentalHistory(String userId) {
-        return rentalRepository.findByUserId(userId);
+        return rentalRepository.findByUserId(userId).stream()
+                .sorted(CHRONOLOGICAL)
+                .toList();
+    }
+
+    // Attach each rental's book (expand=book); every distinct book is looked up once
+    public List<RentalWithBook> withBooks(List<Rental> rentals) {
+        Map<String, Book> books = new HashMap<>();
+        List<RentalWithBook> expanded = new ArrayList<>(rentals.size());
+        for (Rental rental : rentals) {
+            Book book = books.computeIfAbsent(rental.getBookId(),
+                    bookId -> bookRepository.findById(bookId).orElse(null));
+            expanded.add(new RentalWithBook(rental, book));
+        }
+        return expanded;
     }
 }
\ No newline at end of file
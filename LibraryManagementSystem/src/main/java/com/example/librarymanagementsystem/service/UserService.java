@@ -4,9 +4,15 @@ import com.example.librarymanagementsystem.model.User;
 import com.example.librarymanagementsystem.model.enums.UserRole;
 import com.example.librarymanagementsystem.repository.UserRepository;
 import com.example.librarymanagementsystem.repository.RentalRepository;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.example.librarymanagementsystem.util.AuthHelper;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,26 +22,48 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final RentalRepository rentalRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
+    private final AuthHelper authHelper;
 
     // Constructor injection with multiple dependencies
-    public UserService(UserRepository userRepository, RentalRepository rentalRepository) {
+    public UserService(UserRepository userRepository, RentalRepository rentalRepository,
+                       AuthHelper authHelper, PasswordEncoder passwordEncoder) {
         this.userRepository = userRepository;
         this.rentalRepository = rentalRepository;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.passwordEncoder = passwordEncoder;  // Shared bounded encoder from SecurityConfig
+        this.authHelper = authHelper;
     }
 
-    // Get all users (admin only)
+    // Get all users (admin only), sorted by id so pages stay stable as users are added
+    // (the repository returns them in hash order)
     public List<User> getAllUsers() {
-        return userRepository.findAll();
+        return userRepository.findAll().stream()
+                .sorted(Comparator.comparing(User::getId))
+                .toList();
     }
 
-    // Find user by ID
+    // Version of the user data, changes on every user write
+    public long getUsersVersion() {
+        return userRepository.version();
+    }
+
+    // Find user by ID (cached; misses are not cached)
+    @Cacheable(cacheNames = "users", key = "#id", unless = "#result == null")
     public Optional<User> findById(String id) {
         return userRepository.findById(id);
     }
 
+    // Look up many users by id from the primary index; unknown ids are left out
+    public List<User> findByIds(List<String> ids) {
+        List<User> users = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            userRepository.findById(id).ifPresent(users::add);
+        }
+        return users;
+    }
+
     // Update user profile (can edit own profile or admin can edit any)
+    @CachePut(cacheNames = "users", key = "#id")
     public User updateUser(String id, String username, String email, String password) {
         Optional<User> userOpt = userRepository.findById(id);
         if (userOpt.isEmpty()) {
@@ -62,10 +90,13 @@ public class UserService {
             user.setPasswordHash(passwordEncoder.encode(password));
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        authHelper.evictUser(id);
+        return saved;
     }
 
     // Promote user to admin (admin only)
+    @CachePut(cacheNames = "users", key = "#id")
     public User promoteToAdmin(String id) {
         Optional<User> userOpt = userRepository.findById(id);
         if (userOpt.isEmpty()) {
@@ -74,10 +105,13 @@ public class UserService {
 
         User user = userOpt.get();
         user.setRole(UserRole.ADMIN);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        authHelper.evictUser(id);
+        return saved;
     }
 
     // Demote admin to user (admin only)
+    @CachePut(cacheNames = "users", key = "#id")
     public User demoteToUser(String id) {
         Optional<User> userOpt = userRepository.findById(id);
         if (userOpt.isEmpty()) {
@@ -92,10 +126,13 @@ public class UserService {
         }
 
         user.setRole(UserRole.USER);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        authHelper.revokeUser(id); // Outstanding tokens still carry the admin role (this instance only)
+        return saved;
     }
 
     // Delete user account (admin only)
+    @CacheEvict(cacheNames = "users", key = "#id")
     public void deleteUser(String id) {
         Optional<User> userOpt = userRepository.findById(id);
         if (userOpt.isEmpty()) {
@@ -116,5 +153,6 @@ public class UserService {
         }
 
         userRepository.delete(id);
+        authHelper.revokeUser(id);
     }
 }
\ No newline at end of file
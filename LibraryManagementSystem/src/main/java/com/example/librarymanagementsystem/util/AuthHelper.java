@@ -3,13 +3,18 @@ package com.example.librarymanagementsystem.util;
 import com.example.librarymanagementsystem.model.User;
 import com.example.librarymanagementsystem.model.enums.UserRole;
 import com.example.librarymanagementsystem.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.stereotype.Component;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 // @Component tells Spring to create and manage this as a bean
@@ -17,18 +22,81 @@ import java.util.Optional;
 @Component
 public class AuthHelper {
 
+    // Request attributes holding the identity already resolved for this request
+    private static final String CURRENT_USER_ATTRIBUTE = AuthHelper.class.getName() + ".currentUser";
+    private static final String CURRENT_CLAIMS_ATTRIBUTE = AuthHelper.class.getName() + ".currentClaims";
+
+    // Session -> User cache, sized well above expected concurrent sessions
+    private static final int MAX_CACHED_SESSIONS = 10_000;
+    private static final Duration SESSION_IDLE_TIMEOUT = Duration.ofMinutes(30);
+
     private final UserRepository userRepository;
+    private final SignedTokenHelper tokenHelper;
+    private final Cache<String, User> sessionUsers;
 
-    // Constructor injection - Spring provides UserRepository
-    public AuthHelper(UserRepository userRepository) {
+    // Constructor injection - Spring provides UserRepository and SignedTokenHelper
+    public AuthHelper(UserRepository userRepository, SignedTokenHelper tokenHelper) {
         this.userRepository = userRepository;
+        this.tokenHelper = tokenHelper;
+        this.sessionUsers = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_SESSIONS)
+                .expireAfterAccess(SESSION_IDLE_TIMEOUT)
+                .build();
     }
 
-    // Get current logged-in user from session
+    // Get current logged-in user from session (or from the signed token in token mode)
+    // Resolved at most once per request; later calls (isAdmin, isAuthenticated, ...) reuse the result
+    @SuppressWarnings("unchecked")
     public Optional<User> getCurrentUser(HttpServletRequest request) {
+        Object resolved = request.getAttribute(CURRENT_USER_ATTRIBUTE);
+        if (resolved != null) {
+            return (Optional<User>) resolved;
+        }
+
+        try (RequestTimings.Scope ignored = RequestTimings.phase(RequestTimings.Phase.AUTH)) {
+            Optional<User> user = tokenHelper.isEnabled()
+                    ? getCurrentClaims(request).flatMap(claims -> userRepository.findById(claims.userId()))
+                    : resolveSessionUser(request);
+            request.setAttribute(CURRENT_USER_ATTRIBUTE, user);
+            return user;
+        }
+    }
+
+    // Verified token claims for this request (token mode only), checked at most once per request
+    @SuppressWarnings("unchecked")
+    public Optional<SignedTokenHelper.Claims> getCurrentClaims(HttpServletRequest request) {
+        if (!tokenHelper.isEnabled()) {
+            return Optional.empty();
+        }
+        Object resolved = request.getAttribute(CURRENT_CLAIMS_ATTRIBUTE);
+        if (resolved != null) {
+            return (Optional<SignedTokenHelper.Claims>) resolved;
+        }
+
+        try (RequestTimings.Scope ignored = RequestTimings.phase(RequestTimings.Phase.AUTH)) {
+            Optional<SignedTokenHelper.Claims> claims = tokenHelper.extractToken(request).flatMap(tokenHelper::verify);
+            request.setAttribute(CURRENT_CLAIMS_ATTRIBUTE, claims);
+            return claims;
+        }
+    }
+
+    // Session -> User, served from the session cache after the first lookup
+    private Optional<User> resolveSessionUser(HttpServletRequest request) {
         HttpSession session = request.getSession(false);
         if (session == null) return Optional.empty();
 
+        User cached = sessionUsers.getIfPresent(session.getId());
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<User> user = lookupSessionUser(session);
+        user.ifPresent(u -> sessionUsers.put(session.getId(), u));
+        return user;
+    }
+
+    // Repository lookups for the identity stored in the session
+    private Optional<User> lookupSessionUser(HttpSession session) {
         // read both keys; different builds may have one or the other
         String storedId       = (String) session.getAttribute("userId");
         String storedUsername = (String) session.getAttribute("username");
@@ -54,6 +122,28 @@ public class AuthHelper {
         return Optional.empty();
     }
 
+    // Forget the cached identity of one session (login into an existing session, logout)
+    public void evictSession(HttpServletRequest request) {
+        request.removeAttribute(CURRENT_USER_ATTRIBUTE);
+        request.removeAttribute(CURRENT_CLAIMS_ATTRIBUTE);
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            sessionUsers.invalidate(session.getId());
+        }
+    }
+
+    // Forget every cached session of a user (profile update, role change, delete)
+    public void evictUser(String userId) {
+        sessionUsers.asMap().values().removeIf(user -> Objects.equals(user.getId(), userId));
+    }
+
+    // Evict the user and invalidate every token already issued to them (demotion, delete)
+    // On this instance only, see SignedTokenHelper
+    public void revokeUser(String userId) {
+        evictUser(userId);
+        tokenHelper.revokeUser(userId);
+    }
+
     // Check if current user has admin role
     public boolean isAdmin(HttpServletRequest request) {
         Optional<User> userOpt = getCurrentUser(request);
@@ -81,8 +171,12 @@ public class AuthHelper {
         return currentUser.get().getId().equals(resourceUserId);
     }
 
-    // Get current user ID from session (convenience method)
+    // Get current user ID from session or token (convenience method)
     public Optional<String> getCurrentUserId(HttpServletRequest request) {
+        if (tokenHelper.isEnabled()) {
+            return getCurrentClaims(request).map(SignedTokenHelper.Claims::userId);
+        }
+
         HttpSession session = request.getSession(false);
         if (session == null) {
             return Optional.empty();
@@ -105,17 +199,29 @@ public class AuthHelper {
         }
     }
 
+    // Validate an id list for batch endpoints; returns the ids without repeats, in request order
+    public List<String> validateIds(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one ID is required");
+        }
+        if (ids.size() > 100) {
+            throw new IllegalArgumentException("Cannot request more than 100 IDs at once");
+        }
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("IDs cannot be null");
+        }
+        return List.copyOf(new LinkedHashSet<>(ids));
+    }
+
     // Apply pagination to any list
     public <T> List<T> applyPagination(List<T> items, int page, int size) {
         validatePagination(page, size);
 
-        int start = page * size;
-        int end = Math.min(start + size, items.size());
-
+        long start = (long) page * size; // A huge page number must not wrap around
         if (start >= items.size()) {
             return new ArrayList<>();
         }
 
-        return items.subList(start, end);
+        return items.subList((int) start, (int) Math.min(start + size, items.size()));
     }
 }
\ No newline at end of file
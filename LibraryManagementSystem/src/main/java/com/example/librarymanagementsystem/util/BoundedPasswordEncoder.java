@@ -0,0 +1,149 @@
+package com.example.librarymanagementsystem.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// PasswordEncoder that runs the (deliberately slow) hashing on its own small, bounded pool
+// A login storm can then only occupy these threads; request threads wait a bounded time
+// and get a fast "busy" answer instead of piling up behind BCrypt
+// As a MeterBinder it publishes library.password.* meters: queue depth, active hashes, rejections, hash time
+public class BoundedPasswordEncoder implements PasswordEncoder, MeterBinder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+
+    // Metrics; hashes before the registry is bound (none in practice) are not timed
+    private final LongAdder rejected = new LongAdder();
+    private volatile Timer hashTimer;
+
+    // Thrown when the hashing pool is saturated; controllers answer with toResponse()
+    public static class SaturatedException extends RuntimeException {
+        public SaturatedException(String message) {
+            super(message);
+        }
+
+        // 503 with a short Retry-After, the same for every endpoint that hashes passwords
+        public ResponseEntity<Map<String, String>> toResponse() {
+            return ResponseEntity.status(503)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", getMessage()));
+        }
+    }
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration timeout) {
+        this.delegate = delegate;
+        this.timeoutNanos = timeout.toNanos();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return runBounded(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return runBounded(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Only inspects the stored hash (e.g. its BCrypt cost), so it stays on the caller thread
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T runBounded(Callable<T> hashing) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timed(hashing));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new SaturatedException("Server is busy, please try again");
+        }
+
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new SaturatedException("Server is busy, please try again");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SaturatedException("Password check interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private <T> T timed(Callable<T> hashing) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return hashing.call();
+        } finally {
+            Timer timer = hashTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    // Called by Spring Boot once the meter registry exists
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("library.password.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a thread").register(registry);
+        Gauge.builder("library.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes running").register(registry);
+        Gauge.builder("library.password.threads", executor, ThreadPoolExecutor::getMaximumPoolSize)
+                .description("Password hashing pool size").register(registry);
+        // Monotonic, so a counter (rate() works) rather than a gauge
+        FunctionCounter.builder("library.password.rejected", rejected, LongAdder::sum)
+                .description("Hash requests refused because the pool was saturated or timed out").register(registry);
+        hashTimer = Timer.builder("library.password.hash")
+                .description("Time to compute or verify one password hash")
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    // Called by Spring when the context closes (inferred destroy method)
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,60 +1,93 @@
 package com.example.librarymanagementsystem.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.time.LocalDateTime;
+import java.time.Duration;
 
 // @Component creates a singleton cache for frequently accessed data
+// Backed by Caffeine: bounded size (W-TinyLFU eviction), nanoTime-based expiry, hit/miss/eviction stats
+// As a MeterBinder its stats are published as cache.* meters tagged cache=cacheHelper
 @Component
-public class CacheHelper {
+public class CacheHelper implements MeterBinder {
 
-    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
-    private static final int CACHE_EXPIRY_MINUTES = 5;
+    private static final int MAX_ENTRIES = 1000;
+    private static final Duration CACHE_EXPIRY = Duration.ofMinutes(5);
+    private static final String CACHE_NAME = "cacheHelper"; // Metric tag and JFR event field
 
-    // Cache entry with timestamp for expiration
-    private static class CacheEntry {
-        final Object data;
-        final LocalDateTime timestamp;
+    private final Cache<String, Object> cache;
 
-        CacheEntry(Object data) {
-            this.data = data;
-            this.timestamp = LocalDateTime.now();
-        }
+    public CacheHelper() {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(MAX_ENTRIES)
+                .expireAfterWrite(CACHE_EXPIRY)
+                .recordStats()
+                .evictionListener((String key, Object value, RemovalCause cause) -> {
+                    LibraryEvents.CacheEviction event = new LibraryEvents.CacheEviction();
+                    if (event.shouldCommit()) {
+                        event.cache = CACHE_NAME;
+                        event.key = key;
+                        event.cause = cause.name();
+                        event.commit();
+                    }
+                })
+                .build();
+    }
 
-        boolean isExpired() {
-            return timestamp.plusMinutes(CACHE_EXPIRY_MINUTES).isBefore(LocalDateTime.now());
-        }
+    // Called by Spring Boot once the meter registry exists: gets (hit/miss), evictions, puts, size
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(cache, CACHE_NAME, Tags.empty()).bindTo(registry);
     }
 
     // Get cached data if not expired
-    @SuppressWarnings("unchecked")
     public <T> T get(String key, Class<T> type) {
-        CacheEntry entry = cache.get(key);
-        if (entry != null && !entry.isExpired()) {
-            return (T) entry.data;
+        Object data = cache.getIfPresent(key);
+        if (data == null) {
+            LibraryEvents.CacheMiss event = new LibraryEvents.CacheMiss();
+            if (event.shouldCommit()) {
+                event.cache = CACHE_NAME;
+                event.key = key;
+                event.commit();
+            }
         }
-        return null;
+        return type.isInstance(data) ? type.cast(data) : null;
     }
 
     // Store data in cache
     public void put(String key, Object data) {
-        cache.put(key, new CacheEntry(data));
+        cache.put(key, data);
     }
 
     // Clear specific cache entry
     public void evict(String key) {
-        cache.remove(key);
+        cache.invalidate(key);
     }
 
     // Clear all cache entries
     public void evictAll() {
-        cache.clear();
+        cache.invalidateAll();
     }
 
-    // Clear expired entries
+    // Run pending maintenance now (expired entries are otherwise removed during normal reads/writes)
     public void cleanExpired() {
-        cache.entrySet().removeIf(entry -> entry.getValue().isExpired());
+        cache.cleanUp();
+    }
+
+    // Hit/miss/eviction counters since startup
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    // Approximate number of live entries
+    public long size() {
+        return cache.estimatedSize();
     }
-}
\ No newline at end of file
+}
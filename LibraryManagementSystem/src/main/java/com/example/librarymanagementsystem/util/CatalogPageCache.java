@@ -0,0 +1,72 @@
+package com.example.librarymanagementsystem.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+// @Component caching fully rendered catalog pages (GET /books) as encoded and gzip bytes
+// A hit is written straight to the response: no repository scan, no sorting, no Jackson
+// Bounded by the bytes it holds (encoded plus gzip), not by page count: page sizes differ a lot
+@Component
+public class CatalogPageCache {
+
+    // query is the normalized search ("" for the full catalog, "title:..." or "author:...")
+    // fields is the canonical field selection ("" for whole books), format the response encoding
+    // Pages are always sorted by book id, so the sort order is implied by the key
+    public record Key(String query, int page, int size, String fields, WireFormats.Format format) { }
+
+    // Rendered page together with the catalog version it was built from
+    public record Page(long version, byte[] body, byte[] gzip) { }
+
+    private final Cache<Key, Page> pages;
+    private final CatalogVersion catalogVersion;
+
+    public CatalogPageCache(CatalogVersion catalogVersion,
+                            @Value("${app.catalog.page-cache-max-bytes:33554432}") long maxBytes) {
+        this.catalogVersion = catalogVersion;
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Page page) -> page.body().length + page.gzip().length)
+                .executor(Runnable::run) // Evict on the storing thread, so the bound holds right after a put
+                .build();
+    }
+
+    // Version to read BEFORE building a page, so a concurrent mutation makes the new entry stale
+    public long currentVersion() {
+        return catalogVersion.current();
+    }
+
+    // Cached page, or null when missing or built from an older catalog version
+    public Page get(Key key) {
+        Page page = pages.getIfPresent(key);
+        if (page == null || page.version() != catalogVersion.current()) {
+            return null;
+        }
+        return page;
+    }
+
+    // Compress and remember a freshly serialized page
+    public Page store(Key key, long version, byte[] body) {
+        Page page = new Page(version, body, gzip(body));
+        if (version == catalogVersion.current()) {
+            pages.put(key, page);
+        }
+        return page;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress catalog page", e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.librarymanagementsystem.util;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// @Component holding one global version number for everything visible in the catalog
+// BookService and RentalService bump it on every mutation; cached catalog pages built
+// under an older version are simply treated as misses
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    // Current catalog version
+    public long current() {
+        return version.get();
+    }
+
+    // Mark the catalog as changed
+    public long bump() {
+        return version.incrementAndGet();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.librarymanagementsystem.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+// Strong ETags built from monotonic data version counters
+// The version is known before any query runs, so If-None-Match can be answered with 304
+// without touching the repositories or serializing anything
+public class EtagHelper {
+
+    // Versions restart at 0 on every boot; the epoch keeps ETags from different runs apart
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
+    // Clients must revalidate every time, and shared caches must not store per-user data
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    // Build a strong ETag, e.g. "books-lx2k9q-42"; empty qualifiers are left out
+    public static String etag(String scope, long version, String... qualifiers) {
+        StringBuilder tag = new StringBuilder("\"").append(scope)
+                .append('-').append(EPOCH)
+                .append('-').append(version);
+        for (String qualifier : qualifiers) {
+            if (qualifier.isEmpty()) {
+                continue;
+            }
+            tag.append('-').append(qualifier.replace("\"", ""));
+        }
+        return tag.append('"').toString();
+    }
+
+    // True if the request's If-None-Match already names this ETag
+    public static boolean matches(HttpServletRequest request, String etag) {
+        String header = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (header == null || header.isBlank()) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2); // If-None-Match uses weak comparison
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 304 response carrying the current ETag
+    public static ResponseEntity<?> notModified(String etag) {
+        return ResponseEntity.status(304).eTag(etag).cacheControl(REVALIDATE).build();
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.librarymanagementsystem.util;
+
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.model.Rental;
+import com.example.librarymanagementsystem.model.User;
+import com.example.librarymanagementsystem.model.dto.RentalWithBook;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+// @Component for sparse field selection on list endpoints (?fields=id,title,status)
+// Each distinct projection (and wire format) gets its own ObjectWriter, built once and reused, so a request
+// only pays for parsing the parameter; Jackson skips unselected properties while writing
+//
+// Allowed fields come from the entity's own JSON properties; User.passwordHash is never
+// written, whether or not fields= is given
+@Component
+public class FieldProjection {
+
+    // Filter ids attached to the entities through mix-ins on a private mapper copy,
+    // so persistence and every other serializer keep writing full objects
+    private static final String BOOK_FILTER = "bookFields";
+    private static final String USER_FILTER = "userFields";
+    private static final String RENTAL_FILTER = "rentalFields";
+
+    @JsonFilter(BOOK_FILTER)
+    private interface BookFields { }
+
+    @JsonFilter(USER_FILTER)
+    private interface UserFields { }
+
+    @JsonFilter(RENTAL_FILTER)
+    private interface RentalFields { }
+
+    private static final Set<String> HIDDEN_USER_FIELDS = Set.of("passwordHash");
+
+    // Requested field set in canonical form ("" = all fields) and the writer for it
+    public record Projection(String fields, ObjectWriter writer) {
+
+        // Serialize a response body, timed as the request's SERIALIZATION phase
+        public byte[] write(Object value) throws JsonProcessingException {
+            try (RequestTimings.Scope ignored = RequestTimings.phase(RequestTimings.Phase.SERIALIZATION)) {
+                return writer.writeValueAsBytes(value);
+            }
+        }
+    }
+
+    private final Map<WireFormats.Format, ObjectMapper> mappers = new EnumMap<>(WireFormats.Format.class);
+    private final Map<Class<?>, Set<String>> allowedFields;
+    private final Map<String, Projection> projections = new ConcurrentHashMap<>();
+
+    public FieldProjection(WireFormats wireFormats) {
+        for (WireFormats.Format format : WireFormats.Format.values()) {
+            mappers.put(format, wireFormats.mapper(format).copy()
+                    .addMixIn(Book.class, BookFields.class)
+                    .addMixIn(User.class, UserFields.class)
+                    .addMixIn(Rental.class, RentalFields.class)
+                    .addMixIn(RentalWithBook.class, RentalFields.class));
+        }
+
+        Set<String> userFields = propertyNames(User.class);
+        userFields.removeAll(HIDDEN_USER_FIELDS);
+        Set<String> rentalFields = propertyNames(Rental.class);
+        rentalFields.add("book"); // Only present with expand=book
+        this.allowedFields = Map.of(
+                Book.class, Set.copyOf(propertyNames(Book.class)),
+                User.class, Set.copyOf(userFields),
+                Rental.class, Set.copyOf(rentalFields)
+        );
+    }
+
+    private Set<String> propertyNames(Class<?> type) {
+        ObjectMapper mapper = mappers.get(WireFormats.Format.JSON);
+        Set<String> names = new HashSet<>();
+        for (BeanPropertyDefinition property : mapper.getSerializationConfig()
+                .introspect(mapper.constructType(type)).findProperties()) {
+            if (property.couldSerialize()) {
+                names.add(property.getName());
+            }
+        }
+        return names;
+    }
+
+    // JSON writer for a list of Book, User or Rental with the given fields parameter (null or blank = all)
+    // IllegalArgumentException names the first unknown field
+    public Projection forType(Class<?> type, String fields) {
+        return forType(type, fields, WireFormats.Format.JSON);
+    }
+
+    public Projection forType(Class<?> type, String fields, WireFormats.Format format) {
+        Set<String> allowed = allowedFields.get(type);
+        if (allowed == null) {
+            throw new IllegalArgumentException("Field selection is not supported for " + type.getSimpleName());
+        }
+
+        String canonical = canonical(fields, allowed);
+        return projections.computeIfAbsent(type.getSimpleName() + ":" + format + ":" + canonical,
+                key -> new Projection(canonical, mappers.get(format).writer(filters(type, canonical))));
+    }
+
+    // Sorted, de-duplicated field list; id is always included so clients can follow up
+    private static String canonical(String fields, Set<String> allowed) {
+        if (fields == null || fields.isBlank()) {
+            return "";
+        }
+        Set<String> selected = new TreeSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            selected.add(name);
+        }
+        return String.join(",", selected);
+    }
+
+    private static SimpleFilterProvider filters(Class<?> type, String canonical) {
+        PropertyFilter allUserFields = SimpleBeanPropertyFilter.serializeAllExcept(HIDDEN_USER_FIELDS);
+        SimpleFilterProvider provider = new SimpleFilterProvider()
+                .addFilter(BOOK_FILTER, SimpleBeanPropertyFilter.serializeAll())
+                .addFilter(USER_FILTER, allUserFields)
+                .addFilter(RENTAL_FILTER, SimpleBeanPropertyFilter.serializeAll());
+        if (canonical.isEmpty()) {
+            return provider;
+        }
+
+        Set<String> selected = new HashSet<>(Set.of(canonical.split(",")));
+        if (type == Book.class) {
+            provider.addFilter(BOOK_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(selected));
+        } else if (type == User.class) {
+            selected.removeAll(HIDDEN_USER_FIELDS);
+            provider.addFilter(USER_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(selected));
+        } else {
+            // "rental" is the unwrapped wrapper property of RentalWithBook; keep it so its fields are visited
+            selected.add("rental");
+            provider.addFilter(RENTAL_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(selected));
+        }
+        return provider;
+    }
+}
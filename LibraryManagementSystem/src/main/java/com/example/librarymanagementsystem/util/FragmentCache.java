@@ -0,0 +1,83 @@
+package com.example.librarymanagementsystem.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+
+// Serialized JSON of individual stored entities, keyed by id
+// A fragment is computed on first use and dropped when the repository saves or deletes the entity,
+// so unchanged records are serialized once and then only copied: catalog pages, exports and
+// whole-file writes are assembled as '[' + fragment + ',' + fragment + ... + ']'
+//
+// Repositories must invalidate AFTER the entity has been changed (entities are mutated in place
+// and then saved), so a fragment built concurrently with a change is always thrown away
+public class FragmentCache<T> {
+
+    // Per repository; roughly the size of its data file
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private final ObjectWriter writer;
+    private final Function<T, String> idOf;
+    private final Cache<String, byte[]> fragments;
+
+    public FragmentCache(Class<T> type, Function<T, String> idOf, long maxBytes) {
+        this.writer = JsonMappers.shared().writerFor(type);
+        this.idOf = idOf;
+        this.fragments = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String id, byte[] json) -> json.length + id.length())
+                .build();
+    }
+
+    // JSON of the entity, from cache when it has not changed since it was last serialized
+    public byte[] get(T entity) {
+        String id = idOf.apply(entity);
+        if (id == null) {
+            return serialize(entity);
+        }
+        return fragments.get(id, key -> serialize(entity));
+    }
+
+    public void invalidate(String id) {
+        fragments.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        fragments.invalidateAll();
+    }
+
+    // Same bytes as serializing the whole list with the shared mapper
+    public void writeArray(Iterator<? extends T> items, OutputStream out) throws IOException {
+        writeArray(items, this::get, out);
+    }
+
+    // '[' a ',' b ... ']' from any source of fragments
+    public static <E> void writeArray(Iterator<? extends E> items, Function<? super E, byte[]> fragment,
+                                      OutputStream out) throws IOException {
+        out.write('[');
+        boolean first = true;
+        while (items.hasNext()) {
+            if (!first) {
+                out.write(',');
+            }
+            out.write(fragment.apply(items.next()));
+            first = false;
+        }
+        out.write(']');
+    }
+
+    private byte[] serialize(T entity) {
+        try {
+            return writer.writeValueAsBytes(entity);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to serialize " + entity.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -1,89 +1,134 @@
 package com.example.librarymanagementsystem.util;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class JsonFileHandler<T> {
+
+    // Outcome of the last load and write, for the readiness check (HealthConfig)
+    // loaded is false until readFromFile finished; loadError is set when it fell back to no records
+    public record Status(String file, boolean loaded, String loadError, int records, long loadMillis,
+                         Instant lastWriteAt, String lastWriteError) { }
+
+    private static final Logger log = LoggerFactory.getLogger(JsonFileHandler.class);
     private final ObjectMapper objectMapper;
+    private final ObjectReader listReader; // Built once per handler for its record type
+    private final ObjectWriter listWriter;
     private final String filePath;
     private final TypeReference<List<T>> typeReference;
     private final CacheHelper cacheHelper;
     private final String cacheKey;
+    private final FragmentCache<T> fragments; // Per-record JSON kept by the owning repository, may be null
+    // Handlers are created with new, so meters go to Micrometer's global registry (Spring Boot adds its registry to it)
+    private final Timer readTimer;
+    private final Timer writeTimer;
+    private final Counter bytesRead;
+    private final Counter bytesWritten;
+    private volatile Status status;
 
     // Update constructor to include caching
     public JsonFileHandler(String filePath, TypeReference<List<T>> typeReference, CacheHelper cacheHelper) {
+        this(filePath, typeReference, cacheHelper, null);
+    }
+
+    // Writes reuse the repository's serialized records instead of serializing every record again
+    public JsonFileHandler(String filePath, TypeReference<List<T>> typeReference, CacheHelper cacheHelper,
+                           FragmentCache<T> fragments) {
+        this.fragments = fragments;
         this.filePath = filePath;
         this.typeReference = typeReference;
         this.cacheHelper = cacheHelper;
         this.cacheKey = "file_" + filePath.replace("/", "_");
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper = JsonMappers.shared();
+        this.listReader = objectMapper.readerFor(typeReference);
+        // The temp file stream stays open after the write so it can be fsynced
+        this.listWriter = objectMapper.writerFor(typeReference).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        String file = Paths.get(filePath).getFileName().toString();
+        this.readTimer = Timer.builder("library.file.read").description("Data file load duration")
+                .tag("file", file).register(Metrics.globalRegistry);
+        this.writeTimer = Timer.builder("library.file.write").description("Data file write duration")
+                .tag("file", file).register(Metrics.globalRegistry);
+        this.bytesRead = Counter.builder("library.file.read.bytes").baseUnit("bytes")
+                .tag("file", file).register(Metrics.globalRegistry);
+        this.bytesWritten = Counter.builder("library.file.written.bytes").baseUnit("bytes")
+                .tag("file", file).register(Metrics.globalRegistry);
+        this.status = new Status(filePath, false, null, 0, 0, null, null);
         ensureFileExists();
     }
 
     // Read all records from JSON file
     // Optimized read with caching
     public List<T> readFromFile() {
+        long start = System.nanoTime();
+        LibraryEvents.FileRead event = new LibraryEvents.FileRead();
+        event.begin();
         try {
             String raw;
+            long size;
 
             // 1) Try classpath (works inside the JAR on Railway)
             try (java.io.InputStream is =
                          new org.springframework.core.io.ClassPathResource(filePath).getInputStream()) {
-                raw = new String(is.readAllBytes(), java.nio.charset.StandardCharsets.UTF_8);
-                System.out.println("[JsonFileHandler] Loaded from CLASSPATH: " + filePath);
+                byte[] bytes = is.readAllBytes();
+                size = bytes.length;
+                raw = new String(bytes, java.nio.charset.StandardCharsets.UTF_8);
+                log.debug("Reading {} from classpath", filePath);
             } catch (Exception miss) {
                 // 2) Fallback to external file (works locally if you run from project root)
                 java.io.File file = new java.io.File(filePath);
-                System.out.println("[JsonFileHandler] Classpath miss, trying FILE: " + file.getAbsolutePath());
+                log.debug("{} not on classpath, reading {}", filePath, file.getAbsolutePath());
                 if (!file.exists() || file.length() == 0) {
-                    System.out.println("[JsonFileHandler] File missing or empty: " + file.getAbsolutePath());
+                    log.info("Data file missing or empty, starting with no records: {}", file.getAbsolutePath());
+                    loaded(0, null, start);
                     return new java.util.ArrayList<>();
                 }
+                size = file.length();
                 raw = java.nio.file.Files.readString(file.toPath());
             }
 
-            // DEBUG: show what we actually read
-            System.out.println("[JsonFileHandler] Raw JSON (first 300 chars): "
-                    + raw.substring(0, Math.min(300, raw.length())));
-
-            com.fasterxml.jackson.databind.JsonNode root = objectMapper.readTree(raw);
-            if (root.isArray() && root.size() > 0) {
-                com.fasterxml.jackson.databind.JsonNode first = root.get(0);
-                java.util.Iterator<String> it = first.fieldNames();
-                StringBuilder keys = new StringBuilder();
-                while (it.hasNext()) {
-                    if (keys.length() > 0) keys.append(", ");
-                    keys.append(it.next());
-                }
-                System.out.println("[JsonFileHandler] First user keys: [" + keys + "]");
-                System.out.println("[JsonFileHandler] Sample values -> id=" + first.get("id")
-                        + ", userId=" + first.get("userId")
-                        + ", email=" + first.get("email")
-                        + ", userEmail=" + first.get("userEmail")
-                        + ", username=" + first.get("username")
-                        + ", role=" + first.get("role"));
-            }
-
             // 3) Parse into objects and return
-            // NOTE: parse from the same 'raw' we inspected so classpath works
-            java.io.ByteArrayInputStream bin = new java.io.ByteArrayInputStream(raw.getBytes(java.nio.charset.StandardCharsets.UTF_8));
-            List<T> data = objectMapper.readValue(bin, typeReference);
+            List<T> data = listReader.readValue(raw);
+            long elapsed = System.nanoTime() - start;
+            readTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            bytesRead.increment(size);
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = filePath;
+                event.bytes = size;
+                event.records = data.size();
+                event.commit();
+            }
+            log.atInfo().addKeyValue("file", filePath).addKeyValue("records", data.size())
+                    .addKeyValue("bytes", size).addKeyValue("ms", TimeUnit.NANOSECONDS.toMillis(elapsed))
+                    .log("Loaded data file");
+            loaded(data.size(), null, start);
             return data;
 
         } catch (Exception e) {
-            System.out.println("[JsonFileHandler] Key-dump/read failed: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to read data file {}, starting with no records", filePath, e);
+            loaded(0, e.toString(), start);
             return new java.util.ArrayList<>();
         }
     }
@@ -91,13 +136,33 @@ public class JsonFileHandler<T> {
     // Write all records to JSON file with atomic operation
     // Optimized write with cache invalidation
     public void writeToFile(List<T> data) {
+        long start = System.nanoTime();
+        LibraryEvents.FileWrite event = new LibraryEvents.FileWrite();
+        event.begin();
         try {
             String tempFilePath = filePath + ".tmp";
             File tempFile = new File(tempFilePath);
             File targetFile = new File(filePath);
 
             // Write to temp file
-            objectMapper.writeValue(tempFile, data);
+            long fsyncNanos;
+            try (FileOutputStream fileOut = new FileOutputStream(tempFile)) {
+                OutputStream out = new BufferedOutputStream(fileOut);
+                if (fragments != null) {
+                    // Unchanged records are copied from their cached JSON
+                    fragments.writeArray(data.iterator(), out);
+                } else {
+                    listWriter.writeValue(out, data);
+                }
+                out.flush();
+
+                // Contents must be on disk before the move makes this the live file
+                long syncStart = System.nanoTime();
+                fileOut.getFD().sync();
+                fsyncNanos = System.nanoTime() - syncStart;
+            }
+
+            long size = tempFile.length();
 
             // Check if target file is writable
             if (targetFile.exists() && !targetFile.canWrite()) {
@@ -108,22 +173,52 @@ public class JsonFileHandler<T> {
             Path tempPath = tempFile.toPath();
             Path targetPath = targetFile.toPath();
 
+            int moveRetries = 0;
             try {
                 Files.move(tempPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
             } catch (IOException e) {
                 // Retry after brief delay for Windows file handle timing
+                moveRetries++;
                 Thread.sleep(50);
                 Files.move(tempPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
             }
 
             // Invalidate cache after successful write
             cacheHelper.evict(cacheKey);
+            writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            bytesWritten.increment(size);
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = filePath;
+                event.bytes = size;
+                event.records = data.size();
+                event.fsyncNanos = fsyncNanos;
+                event.moveRetries = moveRetries;
+                event.commit();
+            }
+            Status previous = status;
+            status = new Status(filePath, previous.loaded(), previous.loadError(), previous.records(),
+                    previous.loadMillis(), Instant.now(), null);
 
         } catch (IOException | InterruptedException e) {
+            Status previous = status;
+            status = new Status(filePath, previous.loaded(), previous.loadError(), previous.records(),
+                    previous.loadMillis(), previous.lastWriteAt(), e.toString());
             throw new RuntimeException("Failed to write to file: " + filePath, e);
         }
     }
 
+    public Status status() {
+        return status;
+    }
+
+    private void loaded(int records, String error, long startNanos) {
+        Status previous = status;
+        status = new Status(filePath, true, error, records,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                previous.lastWriteAt(), previous.lastWriteError());
+    }
+
     // Ensure file and directory exist
     private void ensureFileExists() {
         try {
@@ -0,0 +1,53 @@
+package com.example.librarymanagementsystem.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+
+// The one Jackson configuration used everywhere: HTTP (exposed as the Spring ObjectMapper bean
+// in JacksonConfig), the JSON data files, catalog import/export and the session log
+//
+// Jackson caches serializers, deserializers and property introspection per mapper, so sharing a
+// single instance means every type is analysed once for the whole process. Callers should still
+// derive an ObjectReader/ObjectWriter once per type and keep it (both are immutable and thread-safe)
+// instead of going through readValue/writeValue with a type argument on every call
+public final class JsonMappers {
+
+    private static final ObjectMapper SHARED = create();
+
+    private JsonMappers() { }
+
+    // Shared, fully configured mapper; do not reconfigure it, use copy() for variations
+    public static ObjectMapper shared() {
+        return SHARED;
+    }
+
+    // New JSON mapper with the application settings (for tests and benchmarks that need their own instance)
+    public static ObjectMapper create() {
+        // Reuse parser/generator buffers across calls on the same thread instead of allocating
+        // fresh char/byte buffers for every document
+        return create(JsonFactory.builder()
+                .recyclerPool(JsonRecyclerPools.threadLocalPool())
+                .build());
+    }
+
+    // Same settings on another encoding (CBOR, Smile)
+    public static ObjectMapper create(JsonFactory factory) {
+        ObjectMapper mapper = new ObjectMapper(factory);
+        // Same modules and defaults Spring Boot would apply
+        mapper.registerModule(new Jdk8Module());
+        mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(new ParameterNamesModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        // Generated accessors instead of reflective getter/setter calls
+        mapper.registerModule(new BlackbirdModule());
+        return mapper;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.librarymanagementsystem.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+// Custom JDK Flight Recorder events, shown under "Library" in JDK Mission Control
+//
+// Without a recording an event is a plain object whose begin/end/shouldCommit are no-ops
+// (the JIT usually removes it altogether), so the emitting code stays in place permanently.
+// Stack traces are off and repository events below 1 ms are dropped by default, which keeps
+// a continuous recording small; a .jfc file can lower the threshold when chasing something
+public final class LibraryEvents {
+
+    private LibraryEvents() { }
+
+    @Name("library.RepositoryOperation")
+    @Label("Repository Operation")
+    @Description("Scan or write on an in-memory repository, including time waiting for its write lock")
+    @Category({"Library", "Repository"})
+    @StackTrace(false)
+    @Threshold("1 ms")
+    public static final class RepositoryOperation extends Event {
+        @Label("Operation")
+        public String operation;
+
+        @Label("Entity")
+        public String entity;
+
+        @Label("Rows Scanned")
+        public int rowsScanned;
+
+        @Label("Rows Returned")
+        public int rowsReturned;
+
+        public static RepositoryOperation start() {
+            RepositoryOperation event = new RepositoryOperation();
+            event.begin();
+            return event;
+        }
+
+        public void finish(String operation, String entity, int rowsScanned, int rowsReturned) {
+            end();
+            if (shouldCommit()) {
+                this.operation = operation;
+                this.entity = entity;
+                this.rowsScanned = rowsScanned;
+                this.rowsReturned = rowsReturned;
+                commit();
+            }
+        }
+    }
+
+    @Name("library.FileRead")
+    @Label("Data File Read")
+    @Category({"Library", "Persistence"})
+    @StackTrace(false)
+    public static final class FileRead extends Event {
+        @Label("Path")
+        public String path;
+
+        @Label("Bytes Read")
+        @DataAmount
+        public long bytes;
+
+        @Label("Records")
+        public int records;
+    }
+
+    @Name("library.FileWrite")
+    @Label("Data File Write")
+    @Description("Temp file write, fsync and atomic move over the data file")
+    @Category({"Library", "Persistence"})
+    @StackTrace(false)
+    public static final class FileWrite extends Event {
+        @Label("Path")
+        public String path;
+
+        @Label("Bytes Written")
+        @DataAmount
+        public long bytes;
+
+        @Label("Records")
+        public int records;
+
+        @Label("Fsync Time")
+        @Timespan(Timespan.NANOSECONDS)
+        public long fsyncNanos;
+
+        @Label("Move Retries")
+        public int moveRetries;
+    }
+
+    @Name("library.CacheMiss")
+    @Label("Cache Miss")
+    @Category({"Library", "Cache"})
+    @StackTrace(false)
+    public static final class CacheMiss extends Event {
+        @Label("Cache")
+        public String cache;
+
+        @Label("Key")
+        public String key;
+    }
+
+    @Name("library.CacheEviction")
+    @Label("Cache Eviction")
+    @Description("Entry removed by the cache itself (size limit or expiry), not by an explicit evict")
+    @Category({"Library", "Cache"})
+    @StackTrace(false)
+    public static final class CacheEviction extends Event {
+        @Label("Cache")
+        public String cache;
+
+        @Label("Key")
+        public String key;
+
+        @Label("Cause")
+        public String cause;
+    }
+}
@@ -0,0 +1,411 @@
+package com.example.librarymanagementsystem.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+// Immutable hash array mapped trie (HAMT) used as the in-memory store of the repositories
+// Every put/remove returns a new map that shares all untouched branches with the old one,
+// so a write costs O(log32 n) and readers holding an older map keep a consistent snapshot
+public final class PersistentHashMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    private final Node<K, V> root;
+    private final int size;
+
+    // Values materialized once per map instance and shared by every reader of this snapshot
+    private volatile List<V> values;
+
+    private PersistentHashMap(Node<K, V> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    // Build a map from a list of entities, keyed by the given id extractor
+    public static <K, V> PersistentHashMap<K, V> of(Iterable<V> items, Function<V, K> keyExtractor) {
+        PersistentHashMap<K, V> map = empty();
+        for (V item : items) {
+            map = map.put(keyExtractor.apply(item), item);
+        }
+        return map;
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public V get(K key) {
+        return root == null ? null : root.find(0, hash(key), key);
+    }
+
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    public PersistentHashMap<K, V> put(K key, V value) {
+        Objects.requireNonNull(value, "Null values are not supported");
+        boolean[] added = new boolean[1];
+        int hash = hash(key);
+        Node<K, V> newRoot = root == null
+                ? BitmapNode.<K, V>single(0, new Leaf<>(hash, key, value))
+                : root.put(0, hash, key, value, added);
+        if (root == null) {
+            added[0] = true;
+        }
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    public PersistentHashMap<K, V> remove(K key) {
+        if (root == null) {
+            return this;
+        }
+        Node<K, V> newRoot = root.remove(0, hash(key), key);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    // Read-only view of all values; computed once per snapshot, never copied per call
+    // Order follows the key hashes, not insertion: callers that page or display must sort
+    public List<V> values() {
+        List<V> result = values;
+        if (result == null) {
+            List<V> collected = new ArrayList<>(size);
+            forEach((k, v) -> collected.add(v));
+            result = Collections.unmodifiableList(collected);
+            values = result;
+        }
+        return result;
+    }
+
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (root != null) {
+            root.forEach(action);
+        }
+    }
+
+    // Lazy walk over the values of this snapshot: no intermediate list, O(trie depth) extra memory
+    public Iterator<V> valueIterator() {
+        return new ValueIterator<>(root);
+    }
+
+    private static int hash(Object key) {
+        int h = Objects.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    private static int fragment(int hash, int shift) {
+        return (hash >>> shift) & MASK;
+    }
+
+    private static int bitpos(int hash, int shift) {
+        return 1 << fragment(hash, shift);
+    }
+
+    // ---- trie nodes ---------------------------------------------------------
+
+    private interface Node<K, V> {
+        V find(int shift, int hash, K key);
+        Node<K, V> put(int shift, int hash, K key, V value, boolean[] added);
+        Node<K, V> remove(int shift, int hash, K key); // null when the node becomes empty
+        void forEach(BiConsumer<? super K, ? super V> action);
+    }
+
+    private record Leaf<K, V>(int hash, K key, V value) {
+        boolean matches(int otherHash, Object otherKey) {
+            return hash == otherHash && Objects.equals(key, otherKey);
+        }
+    }
+
+    // Branch node: a 32-bit bitmap says which slots are used, slots hold a Leaf or a child Node
+    private static final class BitmapNode<K, V> implements Node<K, V> {
+        private final int bitmap;
+        private final Object[] slots;
+
+        private BitmapNode(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        static <K, V> BitmapNode<K, V> single(int shift, Object slot) {
+            int hash = slot instanceof Leaf<?, ?> leaf ? leaf.hash() : ((CollisionNode<?, ?>) slot).hash;
+            return new BitmapNode<>(bitpos(hash, shift), new Object[]{slot});
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V find(int shift, int hash, K key) {
+            int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = slots[index(bit)];
+            if (slot instanceof Leaf<?, ?> leaf) {
+                return leaf.matches(hash, key) ? (V) leaf.value() : null;
+            }
+            return ((Node<K, V>) slot).find(shift + BITS, hash, key);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Node<K, V> put(int shift, int hash, K key, V value, boolean[] added) {
+            int bit = bitpos(hash, shift);
+            int idx = index(bit);
+
+            if ((bitmap & bit) == 0) {
+                Object[] newSlots = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, newSlots, 0, idx);
+                newSlots[idx] = new Leaf<>(hash, key, value);
+                System.arraycopy(slots, idx, newSlots, idx + 1, slots.length - idx);
+                added[0] = true;
+                return new BitmapNode<>(bitmap | bit, newSlots);
+            }
+
+            Object slot = slots[idx];
+            if (slot instanceof Leaf<?, ?> raw) {
+                Leaf<K, V> leaf = (Leaf<K, V>) raw;
+                if (leaf.matches(hash, key)) {
+                    return leaf.value() == value ? this : with(idx, new Leaf<>(hash, key, value));
+                }
+                added[0] = true;
+                return with(idx, merge(shift + BITS, leaf, new Leaf<>(hash, key, value)));
+            }
+
+            Node<K, V> child = (Node<K, V>) slot;
+            Node<K, V> newChild = child.put(shift + BITS, hash, key, value, added);
+            return newChild == child ? this : with(idx, newChild);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Node<K, V> remove(int shift, int hash, K key) {
+            int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int idx = index(bit);
+            Object slot = slots[idx];
+
+            if (slot instanceof Leaf<?, ?> leaf) {
+                return leaf.matches(hash, key) ? without(idx, bit) : this;
+            }
+
+            Node<K, V> child = (Node<K, V>) slot;
+            Node<K, V> newChild = child.remove(shift + BITS, hash, key);
+            if (newChild == child) {
+                return this;
+            }
+            if (newChild == null) {
+                return without(idx, bit);
+            }
+            // Pull a lone leaf up so removed branches do not leave single-entry chains behind
+            if (newChild instanceof BitmapNode<K, V> branch
+                    && branch.slots.length == 1 && branch.slots[0] instanceof Leaf<?, ?>) {
+                return with(idx, branch.slots[0]);
+            }
+            return with(idx, newChild);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            for (Object slot : slots) {
+                if (slot instanceof Leaf<?, ?> raw) {
+                    Leaf<K, V> leaf = (Leaf<K, V>) raw;
+                    action.accept(leaf.key(), leaf.value());
+                } else {
+                    ((Node<K, V>) slot).forEach(action);
+                }
+            }
+        }
+
+        private BitmapNode<K, V> with(int idx, Object slot) {
+            Object[] newSlots = slots.clone();
+            newSlots[idx] = slot;
+            return new BitmapNode<>(bitmap, newSlots);
+        }
+
+        private BitmapNode<K, V> without(int idx, int bit) {
+            if (slots.length == 1) {
+                return null;
+            }
+            Object[] newSlots = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, newSlots, 0, idx);
+            System.arraycopy(slots, idx + 1, newSlots, idx, slots.length - idx - 1);
+            return new BitmapNode<>(bitmap & ~bit, newSlots);
+        }
+
+        // Build the smallest subtree that separates two leaves whose hashes collide at this level
+        private static <K, V> Object merge(int shift, Leaf<K, V> a, Leaf<K, V> b) {
+            if (a.hash() == b.hash()) {
+                return new CollisionNode<>(a.hash(), new Leaf<?, ?>[]{a, b});
+            }
+            int fa = fragment(a.hash(), shift);
+            int fb = fragment(b.hash(), shift);
+            if (fa == fb) {
+                return new BitmapNode<>(1 << fa, new Object[]{merge(shift + BITS, a, b)});
+            }
+            Object[] pair = fa < fb ? new Object[]{a, b} : new Object[]{b, a};
+            return new BitmapNode<>((1 << fa) | (1 << fb), pair);
+        }
+    }
+
+    // Depth-first cursor over the trie; one (slots, position) pair per level
+    private static final class ValueIterator<V> implements Iterator<V> {
+        // 7 branch levels cover a 32-bit hash (5 bits each), plus one collision bucket
+        private static final int MAX_DEPTH = 8;
+
+        private final Object[][] stack = new Object[MAX_DEPTH][];
+        private final int[] positions = new int[MAX_DEPTH];
+        private int depth = -1;
+        private V next;
+
+        ValueIterator(Node<?, V> root) {
+            if (root != null) {
+                push(root);
+            }
+            advance();
+        }
+
+        private void push(Object node) {
+            depth++;
+            stack[depth] = node instanceof BitmapNode<?, ?> branch
+                    ? branch.slots
+                    : ((CollisionNode<?, ?>) node).leaves;
+            positions[depth] = 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                if (positions[depth] == stack[depth].length) {
+                    stack[depth--] = null;
+                    continue;
+                }
+                Object slot = stack[depth][positions[depth]++];
+                if (slot instanceof Leaf<?, ?> leaf) {
+                    next = (V) leaf.value();
+                    return;
+                }
+                push(slot);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public V next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            V result = next;
+            advance();
+            return result;
+        }
+    }
+
+    // Bucket for keys whose full 32-bit hashes are identical
+    private static final class CollisionNode<K, V> implements Node<K, V> {
+        private final int hash;
+        private final Leaf<?, ?>[] leaves;
+
+        private CollisionNode(int hash, Leaf<?, ?>[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (Objects.equals(leaves[i].key(), key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V find(int shift, int hash, K key) {
+            if (hash != this.hash) {
+                return null;
+            }
+            int idx = indexOf(key);
+            return idx < 0 ? null : (V) leaves[idx].value();
+        }
+
+        @Override
+        public Node<K, V> put(int shift, int hash, K key, V value, boolean[] added) {
+            if (hash != this.hash) {
+                // Different hash: push this bucket one level down inside a branch and retry
+                return BitmapNode.<K, V>single(shift, this).put(shift, hash, key, value, added);
+            }
+            int idx = indexOf(key);
+            Leaf<?, ?>[] newLeaves;
+            if (idx >= 0) {
+                if (leaves[idx].value() == value) {
+                    return this;
+                }
+                newLeaves = leaves.clone();
+                newLeaves[idx] = new Leaf<>(hash, key, value);
+            } else {
+                newLeaves = new Leaf<?, ?>[leaves.length + 1];
+                System.arraycopy(leaves, 0, newLeaves, 0, leaves.length);
+                newLeaves[leaves.length] = new Leaf<>(hash, key, value);
+                added[0] = true;
+            }
+            return new CollisionNode<>(hash, newLeaves);
+        }
+
+        @Override
+        public Node<K, V> remove(int shift, int hash, K key) {
+            if (hash != this.hash) {
+                return this;
+            }
+            int idx = indexOf(key);
+            if (idx < 0) {
+                return this;
+            }
+            if (leaves.length == 1) {
+                return null;
+            }
+            Leaf<?, ?>[] newLeaves = new Leaf<?, ?>[leaves.length - 1];
+            System.arraycopy(leaves, 0, newLeaves, 0, idx);
+            System.arraycopy(leaves, idx + 1, newLeaves, idx, leaves.length - idx - 1);
+            return new CollisionNode<>(hash, newLeaves);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            for (Leaf<?, ?> leaf : leaves) {
+                action.accept((K) leaf.key(), (V) leaf.value());
+            }
+        }
+    }
+}
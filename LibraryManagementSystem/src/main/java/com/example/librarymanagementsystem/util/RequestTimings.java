@@ -0,0 +1,180 @@
+package com.example.librarymanagementsystem.util;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// @Component collecting request latency per route and phase in HdrHistograms
+//
+// RequestTimingConfig's filter opens a timing for each request; while it runs, code marks the
+// phases it is in with RequestTimings.phase(...):
+//   AUTH          - AuthHelper resolving the caller (session lookup or token check)
+//   SERVICE       - any @Service method (outermost call only)
+//   SERIALIZATION - Jackson writing the response body (message converters and field projections)
+// OTHER is whatever is left of the total: filters, security, dispatch, controller code.
+// Phases are thread-bound, so work handed to other threads (async imports) is not attributed
+//
+// Requests slower than app.perf.slow-request-ms are logged with their phase breakdown,
+// sampled so a latency spike cannot flood the log
+@Component
+public class RequestTimings {
+
+    public enum Phase { AUTH, SERVICE, SERIALIZATION }
+
+    // Closes a phase; try-with-resources friendly, close() does not throw
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Scope NOOP = () -> { };
+    private static final ThreadLocal<Active> CURRENT = new ThreadLocal<>();
+    private static final SampledLogger log = SampledLogger.of(RequestTimings.class, 5);
+
+    // Routes without a handler pattern (404s, static resources) share one entry
+    public static final String UNMATCHED = "UNMATCHED";
+    // 1% precision: p999 stays meaningful and each histogram stays a few KB
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final String TOTAL = "total";
+    private static final String OTHER = "other";
+
+    private final long slowNanos;
+    private final Map<String, RouteHistograms> routes = new ConcurrentHashMap<>();
+
+    public RequestTimings(@Value("${app.perf.slow-request-ms:500}") long slowRequestMs) {
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowRequestMs);
+    }
+
+    // Time the current thread spends in the phase, attributed to the request being timed (if any)
+    public static Scope phase(Phase phase) {
+        Active active = CURRENT.get();
+        return active == null ? NOOP : active.enter(phase);
+    }
+
+    // Start timing the request handled by this thread
+    public void begin() {
+        CURRENT.set(new Active(System.nanoTime()));
+    }
+
+    // Stop timing, record into the route's histograms and log when slow
+    public void end(String method, String pattern, int status) {
+        Active active = CURRENT.get();
+        CURRENT.remove();
+        if (active == null) {
+            return;
+        }
+        long total = System.nanoTime() - active.start;
+        String route = pattern != null ? method + " " + pattern : UNMATCHED;
+
+        RouteHistograms histograms = routes.computeIfAbsent(route, key -> new RouteHistograms());
+        long other = total;
+        for (Phase phase : Phase.values()) {
+            long nanos = active.nanos[phase.ordinal()];
+            histograms.phases.get(phase).recordValue(toMicros(nanos));
+            other -= nanos;
+        }
+        other = Math.max(0, other); // Phases can nest inside each other
+        histograms.other.recordValue(toMicros(other));
+        histograms.total.recordValue(toMicros(total));
+
+        if (total >= slowNanos) {
+            LoggingEventBuilder event = log.atWarn("request.slow")
+                    .addKeyValue("route", route)
+                    .addKeyValue("status", status)
+                    .addKeyValue("totalMs", toMillis(total));
+            for (Phase phase : Phase.values()) {
+                event = event.addKeyValue(phase.name().toLowerCase(Locale.ROOT) + "Ms",
+                        toMillis(active.nanos[phase.ordinal()]));
+            }
+            event.addKeyValue("otherMs", toMillis(other)).log("Slow request");
+        }
+    }
+
+    // route -> phase -> {count, p50, p99, p999, max} in milliseconds, routes sorted
+    public Map<String, Map<String, Map<String, Object>>> snapshot() {
+        Map<String, Map<String, Map<String, Object>>> result = new TreeMap<>();
+        routes.forEach((route, histograms) -> {
+            Map<String, Map<String, Object>> phases = new LinkedHashMap<>();
+            phases.put(TOTAL, summary(histograms.total));
+            for (Phase phase : Phase.values()) {
+                phases.put(phase.name().toLowerCase(Locale.ROOT), summary(histograms.phases.get(phase)));
+            }
+            phases.put(OTHER, summary(histograms.other));
+            result.put(route, phases);
+        });
+        return result;
+    }
+
+    // Drop everything recorded so far (e.g. before a load test)
+    public void reset() {
+        routes.clear();
+    }
+
+    private static Map<String, Object> summary(ConcurrentHistogram histogram) {
+        Histogram copy = histogram.copy(); // Consistent view while requests keep recording
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", copy.getTotalCount());
+        summary.put("p50", microsToMillis(copy.getValueAtPercentile(50.0)));
+        summary.put("p99", microsToMillis(copy.getValueAtPercentile(99.0)));
+        summary.put("p999", microsToMillis(copy.getValueAtPercentile(99.9)));
+        summary.put("max", microsToMillis(copy.getMaxValue()));
+        return summary;
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private static double toMillis(long nanos) {
+        return microsToMillis(toMicros(nanos));
+    }
+
+    private static double microsToMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class RouteHistograms {
+        final ConcurrentHistogram total = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        final ConcurrentHistogram other = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        final Map<Phase, ConcurrentHistogram> phases = new EnumMap<>(Phase.class);
+
+        RouteHistograms() {
+            for (Phase phase : Phase.values()) {
+                phases.put(phase, new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+            }
+        }
+    }
+
+    // Per-request accumulator, only touched by the request's own thread
+    private static final class Active {
+        final long start;
+        final long[] nanos = new long[Phase.values().length];
+        final int[] depth = new int[Phase.values().length];
+
+        Active(long start) {
+            this.start = start;
+        }
+
+        Scope enter(Phase phase) {
+            int index = phase.ordinal();
+            if (depth[index]++ > 0) {
+                return () -> depth[index]--; // Nested call, already being timed
+            }
+            long begin = System.nanoTime();
+            return () -> {
+                depth[index]--;
+                nanos[index] += System.nanoTime() - begin;
+            };
+        }
+    }
+}
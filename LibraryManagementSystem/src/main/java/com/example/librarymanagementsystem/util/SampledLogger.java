@@ -0,0 +1,81 @@
+package com.example.librarymanagementsystem.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Logger for high-frequency events (one per request or more), rate limited per event category
+// Each category gets at most perSecond events per second; the rest are counted and the count is
+// attached to the next event that gets through as suppressed=<n>. Events carry event=<category>
+// and whatever key/values the caller adds, which the structured console encoder writes as fields:
+//
+//     log.atInfo("login.failure").addKeyValue("username", username).log("Login failed");
+//
+// A dropped event costs a couple of atomic operations and no formatting
+public final class SampledLogger {
+
+    private final Logger log;
+    private final int perSecond;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    private SampledLogger(Logger log, int perSecond) {
+        this.log = log;
+        this.perSecond = perSecond;
+    }
+
+    public static SampledLogger of(Class<?> type, int perSecond) {
+        return new SampledLogger(LoggerFactory.getLogger(type), perSecond);
+    }
+
+    public LoggingEventBuilder atInfo(String category) {
+        return at(Level.INFO, category);
+    }
+
+    public LoggingEventBuilder atWarn(String category) {
+        return at(Level.WARN, category);
+    }
+
+    public LoggingEventBuilder atDebug(String category) {
+        return at(Level.DEBUG, category);
+    }
+
+    private LoggingEventBuilder at(Level level, String category) {
+        if (!log.isEnabledForLevel(level)) {
+            return NOPLoggingEventBuilder.singleton();
+        }
+        Window window = windows.computeIfAbsent(category, key -> new Window());
+        if (!window.tryAcquire(perSecond)) {
+            return NOPLoggingEventBuilder.singleton();
+        }
+        LoggingEventBuilder event = log.atLevel(level).addKeyValue("event", category);
+        long suppressed = window.suppressed.getAndSet(0);
+        return suppressed > 0 ? event.addKeyValue("suppressed", suppressed) : event;
+    }
+
+    // One-second fixed window; approximate under contention, which is fine for log sampling
+    private static final class Window {
+        private final AtomicLong second = new AtomicLong(-1);
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicLong suppressed = new AtomicLong();
+
+        boolean tryAcquire(int limit) {
+            long now = System.nanoTime() / 1_000_000_000L;
+            long current = second.get();
+            if (now != current && second.compareAndSet(current, now)) {
+                count.set(0);
+            }
+            if (count.incrementAndGet() <= limit) {
+                return true;
+            }
+            suppressed.incrementAndGet();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.librarymanagementsystem.util;
+
+import com.example.librarymanagementsystem.model.User;
+import com.example.librarymanagementsystem.model.enums.UserRole;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// @Component for the optional stateless login mode (app.auth.mode=token)
+// Login hands out a compact HMAC-SHA256 signed token carrying userId, role and expiry;
+// any instance holding the same keys can validate it without shared session storage
+//
+// Token layout: v1.<keyId>.<base64url payload>.<base64url signature>
+// Payload:      tokenId|userId|role|issuedAtMillis|expiresAtMillis
+//
+// Revocation is per instance only. The lists below live in this JVM, and the user records
+// AuthHelper checks (role, deletion) are this instance's in-memory copy: the JSON repositories
+// are not written back or shared. Behind a load balancer, a logout, demotion or deletion on one
+// instance is not seen by the others; they keep accepting the token (with the old role) until it
+// expires or they restart. app.auth.token.ttl-minutes is kept short to bound that window
+@Component
+public class SignedTokenHelper {
+
+    public static final String COOKIE_NAME = "LMS_TOKEN";
+    private static final String VERSION = "v1";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAX_REVOKED_ENTRIES = 100_000;
+
+    // Decoded token contents
+    public record Claims(String tokenId, String userId, UserRole role, long issuedAtMillis, long expiresAtMillis) { }
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final String signingKeyId;
+    private final Map<String, byte[]> verificationKeys; // keyId -> secret, first entry signs
+
+    // Small per-instance revocation lists, only as long-lived as the tokens they cancel
+    private final Cache<String, Boolean> revokedTokens;
+    private final Cache<String, Long> revokedUsersBefore; // userId -> tokens issued before this are invalid
+
+    private final SecureRandom random = new SecureRandom();
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    private final Base64.Decoder decoder = Base64.getUrlDecoder();
+
+    public SignedTokenHelper(
+            @Value("${app.auth.mode:session}") String mode,
+            @Value("${app.auth.token.ttl-minutes:15}") long ttlMinutes,
+            @Value("${app.auth.token.keys:}") String keys) {
+        this.enabled = "token".equalsIgnoreCase(mode.trim());
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.verificationKeys = parseKeys(keys);
+        if (verificationKeys.isEmpty()) {
+            // No configured keys: sign with a random per-process key (fine for one instance only)
+            byte[] secret = new byte[32];
+            random.nextBytes(secret);
+            verificationKeys.put("local", secret);
+        }
+        this.signingKeyId = verificationKeys.keySet().iterator().next();
+        this.revokedTokens = Caffeine.newBuilder()
+                .maximumSize(MAX_REVOKED_ENTRIES)
+                .expireAfterWrite(ttl)
+                .build();
+        this.revokedUsersBefore = Caffeine.newBuilder()
+                .maximumSize(MAX_REVOKED_ENTRIES)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // "kid1:base64secret,kid2:base64secret" -> ordered map
+    private static Map<String, byte[]> parseKeys(String keys) {
+        Map<String, byte[]> parsed = new LinkedHashMap<>();
+        if (keys == null || keys.isBlank()) {
+            return parsed;
+        }
+        for (String entry : keys.split(",")) {
+            String trimmed = entry.trim();
+            int colon = trimmed.indexOf(':');
+            if (colon <= 0 || colon == trimmed.length() - 1) {
+                throw new IllegalArgumentException("app.auth.token.keys entries must look like keyId:base64Secret");
+            }
+            parsed.put(trimmed.substring(0, colon), Base64.getDecoder().decode(trimmed.substring(colon + 1)));
+        }
+        return parsed;
+    }
+
+    // True when login should issue tokens instead of creating server-side sessions
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    // Create a signed token for a freshly authenticated user
+    public String issue(User user) {
+        byte[] idBytes = new byte[12];
+        random.nextBytes(idBytes);
+        long now = System.currentTimeMillis();
+
+        String payload = encoder.encodeToString(idBytes)
+                + "|" + user.getId()
+                + "|" + user.getRole()
+                + "|" + now
+                + "|" + (now + ttl.toMillis());
+
+        String unsigned = VERSION + "." + signingKeyId + "." + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return unsigned + "." + encoder.encodeToString(sign(verificationKeys.get(signingKeyId), unsigned));
+    }
+
+    // Validate signature, expiry and revocation; empty for anything that does not check out
+    public Optional<Claims> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            String[] parts = token.split("\\.");
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                return Optional.empty();
+            }
+            byte[] secret = verificationKeys.get(parts[1]);
+            if (secret == null) {
+                return Optional.empty(); // Unknown or retired key
+            }
+
+            String unsigned = parts[0] + "." + parts[1] + "." + parts[2];
+            if (!MessageDigest.isEqual(sign(secret, unsigned), decoder.decode(parts[3]))) {
+                return Optional.empty();
+            }
+
+            String[] fields = new String(decoder.decode(parts[2]), StandardCharsets.UTF_8).split("\\|");
+            if (fields.length != 5) {
+                return Optional.empty();
+            }
+            Claims claims = new Claims(fields[0], fields[1], UserRole.valueOf(fields[2]),
+                    Long.parseLong(fields[3]), Long.parseLong(fields[4]));
+
+            if (claims.expiresAtMillis() <= System.currentTimeMillis() || isRevoked(claims)) {
+                return Optional.empty();
+            }
+            return Optional.of(claims);
+
+        } catch (IllegalArgumentException e) {
+            return Optional.empty(); // Bad base64, role or number
+        }
+    }
+
+    private boolean isRevoked(Claims claims) {
+        if (revokedTokens.getIfPresent(claims.tokenId()) != null) {
+            return true;
+        }
+        Long notBefore = revokedUsersBefore.getIfPresent(claims.userId());
+        return notBefore != null && claims.issuedAtMillis() < notBefore;
+    }
+
+    // Logout: cancel this one token
+    public void revoke(Claims claims) {
+        revokedTokens.put(claims.tokenId(), Boolean.TRUE);
+    }
+
+    // Demotion or deletion: cancel every token issued to this user so far
+    public void revokeUser(String userId) {
+        revokedUsersBefore.put(userId, System.currentTimeMillis() + 1);
+    }
+
+    // Token from "Authorization: Bearer ..." or the token cookie
+    public Optional<String> extractToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith("Bearer ")) {
+            return Optional.of(header.substring(7).trim());
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    return Optional.of(cookie.getValue());
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Cookie carrying the token (same cross-site settings as the session cookie)
+    public ResponseCookie cookie(String token) {
+        return ResponseCookie.from(COOKIE_NAME, token)
+                .httpOnly(true)
+                .secure(true)
+                .sameSite("None")
+                .path("/")
+                .maxAge(ttl)
+                .build();
+    }
+
+    // Expired cookie that makes the browser drop the token
+    public ResponseCookie clearCookie() {
+        return ResponseCookie.from(COOKIE_NAME, "")
+                .httpOnly(true)
+                .secure(true)
+                .sameSite("None")
+                .path("/")
+                .maxAge(0)
+                .build();
+    }
+
+    private static byte[] sign(byte[] secret, String data) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret, ALGORITHM));
+            return mac.doFinal(data.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC signing unavailable", e);
+        }
+    }
+}
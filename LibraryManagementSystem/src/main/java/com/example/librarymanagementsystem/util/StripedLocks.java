@@ -0,0 +1,42 @@
+package com.example.librarymanagementsystem.util;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fixed set of locks addressed by key hash, so per-entity locking needs no lock per entity
+// Several keys are always locked in ascending stripe order, which means two callers with
+// overlapping key sets can never deadlock on each other
+public class StripedLocks {
+
+    private final ReentrantLock[] stripes;
+
+    // Handle returned by lockAll; close() releases everything it holds
+    public interface Held extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public StripedLocks(int count) {
+        this.stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    private int index(String key) {
+        return Math.floorMod(key.hashCode(), stripes.length);
+    }
+
+    // Lock the stripes of all keys (each stripe once, lowest index first)
+    public Held lockAll(Collection<String> keys) {
+        int[] indices = keys.stream().mapToInt(this::index).distinct().sorted().toArray();
+        for (int i = 0; i < indices.length; i++) {
+            stripes[indices[i]].lock();
+        }
+        return () -> {
+            for (int i = indices.length - 1; i >= 0; i--) {
+                stripes[indices[i]].unlock();
+            }
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.librarymanagementsystem.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+// @Component holding the response formats the API can speak: JSON plus the binary CBOR and Smile
+// The binary mappers get the same JsonMappers settings as the JSON one, so dates, modules
+// and property naming come out exactly as in JSON; only the encoding differs
+@Component
+public class WireFormats {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON),
+        CBOR(MediaType.APPLICATION_CBOR),
+        SMILE(APPLICATION_SMILE);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        // ETag/cache qualifier; empty for JSON so existing tags stay the same
+        public String tag() {
+            return this == JSON ? "" : name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final ObjectMapper json;
+    private final ObjectMapper cbor;
+    private final ObjectMapper smile;
+
+    public WireFormats(ObjectMapper objectMapper) {
+        this.json = objectMapper;
+        this.cbor = JsonMappers.create(new CBORFactory());
+        this.smile = JsonMappers.create(new SmileFactory());
+    }
+
+    public ObjectMapper mapper(Format format) {
+        return switch (format) {
+            case JSON -> json;
+            case CBOR -> cbor;
+            case SMILE -> smile;
+        };
+    }
+
+    // Format for endpoints that write pre-serialized bytes; follows Accept, JSON when unsure
+    public static Format negotiate(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return Format.JSON;
+        }
+
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return Format.JSON;
+        }
+        // Highest quality first; equal qualities keep the client's order
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0.0 || type.isWildcardType() || type.isWildcardSubtype()) {
+                continue;
+            }
+            for (Format format : Format.values()) {
+                if (format.mediaType.isCompatibleWith(type)) {
+                    return format;
+                }
+            }
+        }
+        return Format.JSON;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.librarymanagementsystem.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Streamed catalog export (GET /admin/export) in every format, plain and gzipped
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CatalogExportIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String adminCookie;
+    private String title;
+
+    @BeforeEach
+    void setUp() {
+        ResponseEntity<String> login = rest.postForEntity("/auth/login",
+                Map.of("username", "admin", "password", "admin123"), String.class);
+        String setCookie = login.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        assertNotNull(setCookie, login.getBody());
+        adminCookie = setCookie.substring(0, setCookie.indexOf(';'));
+
+        // A book with a comma in its title, so CSV quoting is exercised too
+        title = "Export, Book " + UUID.randomUUID().toString().substring(0, 8);
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.COOKIE, adminCookie);
+        rest.exchange("/books", HttpMethod.POST,
+                new HttpEntity<>(Map.of("title", title, "author", "Export Author", "genre", "Fiction"), headers),
+                String.class);
+    }
+
+    @Test
+    void testJsonExportIsOneArray() throws Exception {
+        for (boolean gzip : new boolean[] {false, true}) {
+            // Act
+            String body = export("json", gzip);
+
+            // Assert
+            JsonNode books = objectMapper.readTree(body);
+            assertTrue(books.isArray());
+            assertTrue(books.findValuesAsText("title").contains(title), "gzip=" + gzip);
+        }
+    }
+
+    @Test
+    void testNdjsonExportIsOneBookPerLine() throws Exception {
+        for (boolean gzip : new boolean[] {false, true}) {
+            // Act
+            List<String> lines = export("ndjson", gzip).lines().toList();
+
+            // Assert
+            boolean found = false;
+            for (String line : lines) {
+                JsonNode book = objectMapper.readTree(line);
+                assertTrue(book.isObject());
+                found |= title.equals(book.path("title").asText());
+            }
+            assertTrue(found, "gzip=" + gzip);
+            assertEquals(exportedCount(), lines.size());
+        }
+    }
+
+    @Test
+    void testCsvExportHasHeaderAndQuotedRows() throws Exception {
+        for (boolean gzip : new boolean[] {false, true}) {
+            // Act
+            List<String> lines = export("csv", gzip).lines().toList();
+
+            // Assert
+            assertEquals("id,title,author,genre,status", lines.get(0));
+            assertTrue(lines.stream().anyMatch(line -> line.contains("\"" + title + "\",Export Author,Fiction,")),
+                    "gzip=" + gzip);
+            assertEquals(exportedCount() + 1, lines.size());
+        }
+    }
+
+    @Test
+    void testExportHeadersAndUnknownFormat() {
+        // Act
+        ResponseEntity<byte[]> gzipped = get("/admin/export?format=ndjson&gzip=true");
+        ResponseEntity<byte[]> unknown = get("/admin/export?format=xml");
+
+        // Assert
+        assertEquals("application/gzip", gzipped.getHeaders().getContentType().toString());
+        assertTrue(gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION).endsWith(".ndjson.gz"));
+        assertEquals(400, unknown.getStatusCode().value());
+    }
+
+    private int exportedCount() throws IOException {
+        return objectMapper.readTree(export("json", false)).size();
+    }
+
+    private String export(String format, boolean gzip) throws IOException {
+        ResponseEntity<byte[]> response = get("/admin/export?format=" + format + "&gzip=" + gzip);
+        assertEquals(200, response.getStatusCode().value());
+        byte[] body = response.getBody();
+        if (gzip) {
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                body = in.readAllBytes();
+            }
+        }
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    private ResponseEntity<byte[]> get(String path) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.COOKIE, adminCookie);
+        return rest.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.librarymanagementsystem.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ETags and If-None-Match on the polled list endpoints (GET /books, /users, /books/my-rentals)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ConditionalGetIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String adminCookie;
+
+    @BeforeEach
+    void setUp() {
+        adminCookie = login("admin", "admin123");
+    }
+
+    @Test
+    void testMatchingIfNoneMatchGets304() {
+        // Arrange
+        for (String path : new String[] {"/books", "/users", "/books/my-rentals"}) {
+            ResponseEntity<byte[]> first = get(path, Map.of());
+            String etag = first.getHeaders().getETag();
+            assertEquals(200, first.getStatusCode().value(), path);
+            assertNotNull(etag, path);
+
+            // Act
+            ResponseEntity<byte[]> second = get(path, Map.of(HttpHeaders.IF_NONE_MATCH, etag));
+
+            // Assert
+            assertEquals(304, second.getStatusCode().value(), path);
+            assertEquals(etag, second.getHeaders().getETag(), path);
+            assertNull(second.getBody(), path);
+        }
+    }
+
+    @Test
+    void testWritesChangeTheEtag() throws Exception {
+        // Arrange
+        String books = get("/books", Map.of()).getHeaders().getETag();
+        String users = get("/users", Map.of()).getHeaders().getETag();
+        String rentals = get("/books/my-rentals", Map.of()).getHeaders().getETag();
+
+        // Act - a book, a user and a rental write
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        ResponseEntity<String> added = exchange(HttpMethod.POST, "/books",
+                Map.of("title", "Etag Book " + suffix, "author", "Etag Author", "genre", "Fiction"));
+        String bookId = objectMapper.readTree(added.getBody()).path("book").path("id").asText();
+        rest.postForEntity("/auth/register", Map.of("username", "etag_" + suffix,
+                "email", "etag_" + suffix + "@example.com", "password", "password123"), String.class);
+        ResponseEntity<String> rented = exchange(HttpMethod.POST, "/books/" + bookId + "/rent", null);
+
+        // Assert - the old ETags no longer match
+        assertEquals(200, rented.getStatusCode().value(), rented.getBody());
+        assertNotEquals(books, get("/books", Map.of()).getHeaders().getETag());
+        assertNotEquals(users, get("/users", Map.of()).getHeaders().getETag());
+        assertNotEquals(rentals, get("/books/my-rentals", Map.of()).getHeaders().getETag());
+        assertEquals(200, get("/books", Map.of(HttpHeaders.IF_NONE_MATCH, books)).getStatusCode().value());
+    }
+
+    @Test
+    void testEachRepresentationHasItsOwnEtag() {
+        // Act
+        String identity = get("/books", Map.of()).getHeaders().getETag();
+        String gzip = get("/books", Map.of(HttpHeaders.ACCEPT_ENCODING, "gzip")).getHeaders().getETag();
+        String cbor = get("/books", Map.of(HttpHeaders.ACCEPT, "application/cbor")).getHeaders().getETag();
+        String projected = get("/books?fields=id,title", Map.of()).getHeaders().getETag();
+        ResponseEntity<byte[]> crossVariant = get("/books", Map.of(
+                HttpHeaders.ACCEPT_ENCODING, "gzip", HttpHeaders.IF_NONE_MATCH, identity));
+
+        // Assert
+        assertEquals(4, Set.of(identity, gzip, cbor, projected).size());
+        assertEquals(200, crossVariant.getStatusCode().value());
+        assertEquals("gzip", crossVariant.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNotEquals(get("/users", Map.of()).getHeaders().getETag(),
+                get("/users?fields=id,username", Map.of()).getHeaders().getETag());
+        assertNotEquals(get("/books/my-rentals", Map.of()).getHeaders().getETag(),
+                get("/books/my-rentals?expand=book", Map.of()).getHeaders().getETag());
+    }
+
+    private ResponseEntity<byte[]> get(String path, Map<String, String> headers) {
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.add(HttpHeaders.COOKIE, adminCookie);
+        headers.forEach(httpHeaders::add);
+        return rest.exchange(path, HttpMethod.GET, new HttpEntity<>(httpHeaders), byte[].class);
+    }
+
+    private ResponseEntity<String> exchange(HttpMethod method, String path, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.COOKIE, adminCookie);
+        return rest.exchange(path, method, new HttpEntity<>(body, headers), String.class);
+    }
+
+    private String login(String username, String password) {
+        ResponseEntity<String> response = rest.postForEntity("/auth/login",
+                Map.of("username", username, "password", password), String.class);
+        assertEquals(200, response.getStatusCode().value(), response.getBody());
+        String setCookie = response.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        assertNotNull(setCookie);
+        return setCookie.substring(0, setCookie.indexOf(';'));
+    }
+}
@@ -16,7 +16,11 @@ import com.example.librarymanagementsystem.repository.impl.JsonUserRepository;
 import com.example.librarymanagementsystem.repository.impl.JsonBookRepository;
 import com.example.librarymanagementsystem.repository.impl.JsonRentalRepository;
 import com.example.librarymanagementsystem.util.ValidationHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.example.librarymanagementsystem.util.AuthHelper;
+import com.example.librarymanagementsystem.util.SignedTokenHelper;
 import com.example.librarymanagementsystem.util.CacheHelper;
+import com.example.librarymanagementsystem.util.CatalogVersion;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.slf4j.Logger;
@@ -58,12 +62,14 @@ class EndToEndWorkflowTest {
         // Create validation helper and password encoder
         ValidationHelper validationHelper = new ValidationHelper();
         PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        CatalogVersion catalogVersion = new CatalogVersion();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
         // Initialize services with dependencies
-        authService = new AuthService(userRepository, validationHelper, passwordEncoder);
-        bookService = new BookService(bookRepository, rentalRepository);
-        userService = new UserService(userRepository, rentalRepository);
-        rentalService = new RentalService(rentalRepository, bookRepository, userRepository);
+        authService = new AuthService(userRepository, validationHelper, passwordEncoder, meterRegistry);
+        bookService = new BookService(bookRepository, rentalRepository, catalogVersion);
+        userService = new UserService(userRepository, rentalRepository, new AuthHelper(userRepository, new SignedTokenHelper("session", 60, "")), passwordEncoder);
+        rentalService = new RentalService(rentalRepository, bookRepository, userRepository, catalogVersion, meterRegistry);
     }
 
     @Test
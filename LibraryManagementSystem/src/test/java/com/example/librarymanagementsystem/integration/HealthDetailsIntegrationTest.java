@@ -0,0 +1,64 @@
+package com.example.librarymanagementsystem.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Probes stay status-only for anonymous callers; admins get the per-check details and timings
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class HealthDetailsIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testReadinessProbeHidesDetails() throws Exception {
+        // Act
+        ResponseEntity<String> response = rest.getForEntity("/readyz", String.class);
+
+        // Assert
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertTrue(body.has("status"));
+        assertFalse(body.has("components"));
+        assertFalse(body.has("details"));
+    }
+
+    @Test
+    void testAdminHealthShowsEveryCheckWithTiming() throws Exception {
+        // Arrange
+        ResponseEntity<String> login = rest.postForEntity("/auth/login",
+                Map.of("username", "admin", "password", "admin123"), String.class);
+        String setCookie = login.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        assertNotNull(setCookie, login.getBody());
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.COOKIE, setCookie.substring(0, setCookie.indexOf(';')));
+
+        // Act
+        ResponseEntity<String> admin = rest.exchange("/admin/health", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+        ResponseEntity<String> anonymous = rest.getForEntity("/admin/health", String.class);
+
+        // Assert
+        assertEquals(200, admin.getStatusCode().value());
+        JsonNode checks = objectMapper.readTree(admin.getBody()).path("checks");
+        for (String check : new String[] {"repositories", "persistence", "heap"}) {
+            assertTrue(checks.path(check).path("details").has("durationMs"), check);
+        }
+        assertTrue(checks.path("heap").path("details").has("freePercent"));
+        assertEquals(403, anonymous.getStatusCode().value());
+    }
+}
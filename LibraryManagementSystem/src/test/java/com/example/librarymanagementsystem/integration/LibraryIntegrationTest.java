@@ -15,7 +15,9 @@ import com.example.librarymanagementsystem.repository.impl.JsonUserRepository;
 import com.example.librarymanagementsystem.repository.impl.JsonBookRepository;
 import com.example.librarymanagementsystem.repository.impl.JsonRentalRepository;
 import com.example.librarymanagementsystem.util.CacheHelper;
+import com.example.librarymanagementsystem.util.CatalogVersion;
 import com.example.librarymanagementsystem.util.ValidationHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -24,6 +26,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import java.io.File;
 import java.io.FileWriter;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -60,9 +63,11 @@ class LibraryIntegrationTest {
         // Initialize services with real dependencies
         ValidationHelper validationHelper = new ValidationHelper();
         BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-        authService = new AuthService(userRepository, validationHelper, passwordEncoder);
-        bookService = new BookService(bookRepository, rentalRepository);
-        rentalService = new RentalService(rentalRepository, bookRepository, userRepository);
+        CatalogVersion catalogVersion = new CatalogVersion();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        authService = new AuthService(userRepository, validationHelper, passwordEncoder, meterRegistry);
+        bookService = new BookService(bookRepository, rentalRepository, catalogVersion);
+        rentalService = new RentalService(rentalRepository, bookRepository, userRepository, catalogVersion, meterRegistry);
     }
 
     private void createTestDataFiles() throws Exception {
@@ -268,4 +273,74 @@ class LibraryIntegrationTest {
         assertTrue(retrievedBook.isPresent());
         assertEquals(BookStatus.RENTED, retrievedBook.get().getStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testBatchRentIsAllOrNothing() {
+        // Test checkout cart: one unavailable book rejects the whole batch
+
+        User user = authService.register("cartuser", "cart@test.com", "password123");
+        User other = authService.register("otheruser", "other@test.com", "password123");
+
+        Book book1 = bookService.addBook("Cart Book 1", "Author 1", "Fiction");
+        Book book2 = bookService.addBook("Cart Book 2", "Author 2", "Fiction");
+        Book book3 = bookService.addBook("Cart Book 3", "Author 3", "Fiction");
+
+        // Another user already has book 3
+        rentalService.rentBook(other.getId(), book3.getId());
+
+        assertThrows(RuntimeException.class, () -> {
+            rentalService.rentBooks(user.getId(), List.of(book1.getId(), book2.getId(), book3.getId()));
+        });
+
+        // Nothing from the failed batch was applied
+        assertEquals(0, rentalService.getUserActiveRentals(user.getId()).size());
+        assertEquals(BookStatus.AVAILABLE, bookService.findById(book1.getId()).get().getStatus());
+
+        // Rent and return the available books in one go each
+        List<Rental> rentals = rentalService.rentBooks(user.getId(), List.of(book1.getId(), book2.getId()));
+        assertEquals(2, rentals.size());
+        assertEquals(BookStatus.RENTED, bookService.findById(book2.getId()).get().getStatus());
+
+        rentalService.returnBooks(user.getId(), List.of(book1.getId(), book2.getId()));
+        assertEquals(0, rentalService.getUserActiveRentals(user.getId()).size());
+        assertEquals(BookStatus.AVAILABLE, bookService.findById(book1.getId()).get().getStatus());
+    }
+
+    @Test
+    void testRentalHistoryIsChronological() {
+        // Test that history comes back oldest first, whatever order the repository stores it in
+
+        User user = authService.register("historyuser", "history@test.com", "password123");
+        List<String> rentedIds = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            Book book = bookService.addBook("History Book " + i, "Author " + i, "Fiction");
+            rentedIds.add(rentalService.rentBook(user.getId(), book.getId()).getId());
+        }
+
+        List<Rental> history = rentalService.getUserRentalHistory(user.getId());
+
+        assertEquals(4, history.size());
+        for (int i = 1; i < history.size(); i++) {
+            Rental previous = history.get(i - 1);
+            Rental current = history.get(i);
+            int byDate = previous.getRentDate().compareTo(current.getRentDate());
+            assertTrue(byDate < 0 || (byDate == 0 && previous.getId().compareTo(current.getId()) < 0));
+        }
+        assertEquals(history, rentalService.getUserRentalHistory(user.getId()));
+        assertTrue(history.stream().map(Rental::getId).toList().containsAll(rentedIds));
+    }
+
+    @Test
+    void testBatchRentRespectsRentalLimit() {
+        // Test that a cart larger than the remaining allowance is rejected
+
+        User user = authService.register("bigcart", "bigcart@test.com", "password123");
+        List<String> ids = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            ids.add(bookService.addBook("Limit Book " + i, "Author " + i, "Fiction").getId());
+        }
+
+        assertThrows(RuntimeException.class, () -> rentalService.rentBooks(user.getId(), ids));
+        assertEquals(0, rentalService.getUserActiveRentals(user.getId()).size());
+    }
+}
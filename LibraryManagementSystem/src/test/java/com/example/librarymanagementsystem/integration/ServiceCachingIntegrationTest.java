@@ -0,0 +1,116 @@
+package com.example.librarymanagementsystem.integration;
+
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.model.User;
+import com.example.librarymanagementsystem.model.enums.UserRole;
+import com.example.librarymanagementsystem.service.AuthService;
+import com.example.librarymanagementsystem.service.BookService;
+import com.example.librarymanagementsystem.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Spring Cache annotations on the services: reads fill the Caffeine caches, writes update or evict them
+@SpringBootTest
+class ServiceCachingIntegrationTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+    @Test
+    void testBookUpdateReplacesCachedBookAndClearsSearches() {
+        // Arrange
+        Book book = bookService.addBook("Cached Title " + suffix, "Cached Author", "Fiction");
+        bookService.findById(book.getId());
+        bookService.searchByTitle("Cached Title " + suffix);
+        Cache books = cacheManager.getCache("books");
+        Cache searches = cacheManager.getCache("bookSearches");
+        assertNotNull(searches.get("title:cached title " + suffix));
+        // Books are changed in place, so plant a separate stale copy to see the cache entry replaced
+        Book stale = new Book();
+        stale.setId(book.getId());
+        stale.setTitle("Stale");
+        books.put(book.getId(), stale);
+
+        // Act
+        Book updated = bookService.updateBook(book.getId(), "Renamed " + suffix, "Cached Author", "Fiction");
+
+        // Assert
+        assertSame(updated, books.get(book.getId(), Book.class));
+        assertNull(searches.get("title:cached title " + suffix));
+        assertTrue(bookService.searchByTitle("Cached Title " + suffix).isEmpty());
+        assertEquals(1, bookService.searchByTitle("Renamed " + suffix).size());
+    }
+
+    @Test
+    void testBookDeleteEvictsCachedBook() {
+        // Arrange
+        Book book = bookService.addBook("Deleted Title " + suffix, "Deleted Author", "Fiction");
+        assertTrue(bookService.findById(book.getId()).isPresent());
+        bookService.searchByAuthor("Deleted Author");
+        Cache books = cacheManager.getCache("books");
+
+        // Act
+        bookService.deleteBook(book.getId());
+
+        // Assert
+        assertNull(books.get(book.getId()));
+        assertNull(cacheManager.getCache("bookSearches").get("author:deleted author"));
+        assertTrue(bookService.findById(book.getId()).isEmpty());
+        assertNull(books.get(book.getId())); // Misses are not cached
+    }
+
+    @Test
+    void testUserDemotionUpdatesCachedUser() {
+        // Arrange
+        User user = authService.register("cache_" + suffix, "cache_" + suffix + "@example.com", "password123");
+        userService.promoteToAdmin(user.getId());
+        assertEquals(UserRole.ADMIN, userService.findById(user.getId()).get().getRole());
+        Cache users = cacheManager.getCache("users");
+        User stale = new User();
+        stale.setId(user.getId());
+        stale.setRole(UserRole.ADMIN);
+        users.put(user.getId(), stale);
+
+        // Act
+        userService.demoteToUser(user.getId());
+
+        // Assert
+        assertNotSame(stale, users.get(user.getId(), User.class));
+        assertEquals(UserRole.USER, users.get(user.getId(), User.class).getRole());
+        assertEquals(UserRole.USER, userService.findById(user.getId()).get().getRole());
+    }
+
+    @Test
+    void testUserDeleteEvictsCachedUser() {
+        // Arrange
+        User user = authService.register("gone_" + suffix, "gone_" + suffix + "@example.com", "password123");
+        assertTrue(userService.findById(user.getId()).isPresent());
+        Cache users = cacheManager.getCache("users");
+        assertNotNull(users.get(user.getId()));
+
+        // Act
+        userService.deleteUser(user.getId());
+
+        // Assert
+        assertNull(users.get(user.getId()));
+        assertTrue(userService.findById(user.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.librarymanagementsystem.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Multipart gate (UploadLimitConfig) against a running server with sessions kept by Spring Session
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.session.store=file",
+        "app.session.file=target/test-sessions/upload-limit-sessions.log",
+        "app.upload.max-request-size=1KB"
+})
+class UploadLimitIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Test
+    void testAdminImportPassesWithFileSession() {
+        // Arrange
+        String cookie = login("admin", "admin123");
+
+        // Act
+        ResponseEntity<String> response = upload("/admin/import", cookie, "[]");
+
+        // Assert
+        assertEquals(200, response.getStatusCode().value(), response.getBody());
+        assertTrue(response.getBody().contains("Import completed"));
+    }
+
+    @Test
+    void testNonAdminAndAnonymousImportsAreRefused() {
+        // Arrange
+        String username = "upl_" + UUID.randomUUID().toString().substring(0, 8);
+        rest.postForEntity("/auth/register", Map.of(
+                "username", username, "email", username + "@example.com", "password", "password123"), String.class);
+        String cookie = login(username, "password123");
+
+        // Act
+        ResponseEntity<String> user = upload("/admin/import", cookie, "[]");
+        ResponseEntity<String> anonymous = upload("/admin/import", null, "[]");
+
+        // Assert
+        assertEquals(403, user.getStatusCode().value());
+        assertEquals(403, anonymous.getStatusCode().value());
+    }
+
+    @Test
+    void testOversizedMultipartElsewhereIsRefused() {
+        // Act
+        ResponseEntity<String> response = upload("/books", null, "x".repeat(4096));
+
+        // Assert
+        assertEquals(413, response.getStatusCode().value());
+    }
+
+    // Session cookie ("SESSION=...") from a successful login
+    private String login(String username, String password) {
+        ResponseEntity<String> response = rest.postForEntity("/auth/login",
+                Map.of("username", username, "password", password), String.class);
+        assertEquals(200, response.getStatusCode().value(), response.getBody());
+        String setCookie = response.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        assertNotNull(setCookie);
+        return setCookie.substring(0, setCookie.indexOf(';'));
+    }
+
+    private ResponseEntity<String> upload(String path, String cookie, String content) {
+        MultiValueMap<String, Object> parts = new LinkedMultiValueMap<>();
+        parts.add("file", new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return "books.json";
+            }
+        });
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        if (cookie != null) {
+            headers.add(HttpHeaders.COOKIE, cookie);
+        }
+        return rest.postForEntity(path, new HttpEntity<>(parts, headers), String.class);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.librarymanagementsystem.repository.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.session.MapSession;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSessionRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path logFile;
+    private FileSessionRepository repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        logFile = tempDir.resolve("sessions.log");
+        repository = open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        repository.close();
+    }
+
+    // Long intervals so the tests drive flush/sweep themselves
+    private FileSessionRepository open() throws IOException {
+        return new FileSessionRepository(logFile, Duration.ofMinutes(30), Duration.ofHours(1), Duration.ofHours(1));
+    }
+
+    private MapSession loggedIn(String userId) {
+        MapSession session = repository.createSession();
+        session.setAttribute("userId", userId);
+        session.setAttribute("role", "USER");
+        repository.save(session);
+        return session;
+    }
+
+    @Test
+    void testSessionSurvivesRestart() throws IOException {
+        // Arrange
+        MapSession session = loggedIn("user-1");
+
+        // Act
+        repository.close();
+        repository = open();
+        MapSession restored = repository.findById(session.getId());
+
+        // Assert
+        assertNotNull(restored);
+        assertEquals("user-1", restored.getAttribute("userId"));
+        assertEquals("USER", restored.getAttribute("role"));
+    }
+
+    @Test
+    void testDeletedSessionStaysDeletedAfterRestart() throws IOException {
+        // Arrange
+        MapSession session = loggedIn("user-1");
+        repository.flush();
+
+        // Act
+        repository.deleteById(session.getId());
+        repository.close();
+        repository = open();
+
+        // Assert
+        assertNull(repository.findById(session.getId()));
+        assertEquals(0, repository.size());
+    }
+
+    @Test
+    void testSessionDeletedBeforeFirstFlushGetsTombstone() throws IOException {
+        // Arrange - a flush may be appending the session while the logout happens
+        MapSession session = loggedIn("user-1");
+
+        // Act
+        repository.deleteById(session.getId());
+        int pending = repository.pendingWrites();
+        repository.flush();
+        repository.close();
+        repository = open();
+
+        // Assert
+        assertEquals(1, pending);
+        assertNull(repository.findById(session.getId()));
+    }
+
+    @Test
+    void testExpiredSessionNotReturned() throws IOException {
+        // Arrange
+        MapSession session = repository.createSession();
+        session.setAttribute("userId", "user-1");
+        session.setLastAccessedTime(Instant.now().minus(Duration.ofHours(1)));
+        repository.save(session);
+        repository.flush();
+
+        // Act
+        repository.sweep();
+
+        // Assert
+        assertNull(repository.findById(session.getId()));
+    }
+
+    @Test
+    void testLatestSaveWins() throws IOException {
+        // Arrange
+        MapSession session = loggedIn("user-1");
+        repository.flush();
+        session.setAttribute("role", "ADMIN");
+        repository.save(session);
+
+        // Act
+        repository.close();
+        repository = open();
+
+        // Assert
+        assertEquals("ADMIN", repository.findById(session.getId()).getAttribute("role"));
+    }
+
+    @Test
+    void testPendingWritesAndLagClearedByFlush() throws IOException {
+        // Arrange
+        Instant before = Instant.now();
+        loggedIn("user-1");
+        loggedIn("user-2");
+
+        // Act & Assert
+        assertEquals(2, repository.pendingWrites());
+        assertFalse(repository.oldestPendingAt().isBefore(before.minusMillis(1)));
+
+        repository.flush();
+        assertEquals(0, repository.pendingWrites());
+        assertNull(repository.oldestPendingAt());
+        assertFalse(repository.lastFlushAt().isBefore(before.minusMillis(1)));
+        assertNull(repository.lastFlushError());
+    }
+}
@@ -4,10 +4,10 @@ import com.example.librarymanagementsystem.model.User;
 import com.example.librarymanagementsystem.model.enums.UserRole;
 import com.example.librarymanagementsystem.repository.UserRepository;
 import com.example.librarymanagementsystem.util.ValidationHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -34,7 +34,7 @@ class AuthServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
     private AuthService authService;
 
     private User testUser;
@@ -44,6 +44,8 @@ class AuthServiceTest {
     void setUp() {
         // Keep a real encoder for test setup only
         realPasswordEncoder = new BCryptPasswordEncoder();
+        meterRegistry = new SimpleMeterRegistry();
+        authService = new AuthService(userRepository, validationHelper, passwordEncoder, meterRegistry);
 
         // Create test user with hashed password
         testUser = new User();
@@ -73,6 +75,24 @@ class AuthServiceTest {
         verify(passwordEncoder).matches("password123", testUser.getPasswordHash());
     }
 
+    @Test
+    void testLoginRehashesOutdatedPassword() {
+        // Arrange - stored hash was made with a lower cost than currently configured
+        String oldHash = testUser.getPasswordHash();
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("password123", oldHash)).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(oldHash)).thenReturn(true);
+        when(passwordEncoder.encode("password123")).thenReturn("stronger-hash");
+
+        // Act
+        Optional<User> result = authService.login("testuser", "password123");
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("stronger-hash", testUser.getPasswordHash());
+        verify(userRepository).save(testUser);
+    }
+
     @Test
     void testLoginFailureInvalidPassword() {
         // Arrange
@@ -86,6 +106,8 @@ class AuthServiceTest {
         // Assert
         assertFalse(result.isPresent());
         verify(passwordEncoder).matches("wrongpassword", testUser.getPasswordHash());
+        assertEquals(1.0, meterRegistry.get("library.logins").tag("result", "failure").counter().count());
+        assertEquals(0.0, meterRegistry.get("library.logins").tag("result", "success").counter().count());
     }
 
     @Test
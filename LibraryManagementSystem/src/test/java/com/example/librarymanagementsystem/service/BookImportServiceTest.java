@@ -0,0 +1,140 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.model.dto.ImportSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceTest {
+
+    @Mock
+    private BookService bookService;
+
+    private BookImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new BookImportService(bookService, 2, 3);
+    }
+
+    // BookService stub that accepts every candidate and records them
+    private List<Book> acceptAll() {
+        List<Book> imported = new ArrayList<>();
+        lenient().when(bookService.addBooks(anyList())).thenAnswer(invocation -> {
+            List<Book> batch = invocation.getArgument(0);
+            imported.addAll(batch);
+            return batch;
+        });
+        return imported;
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testImportJsonArray() throws IOException {
+        // Arrange
+        List<Book> imported = acceptAll();
+        String json = "[{\"title\":\"Dune\",\"author\":\"Herbert\",\"genre\":\"Sci-Fi\"},"
+                + "{\"title\":\"Emma\",\"author\":\"Austen\"},"
+                + "{\"title\":\"Ulysses\",\"author\":\"Joyce\"}]";
+
+        // Act
+        ImportSummary summary = importService.importBooks(stream(json), BookImportService.Format.JSON);
+
+        // Assert
+        assertEquals(3, summary.getAdded());
+        assertEquals(0, summary.getErrorCount());
+        assertEquals("Sci-Fi", imported.get(0).getGenre());
+        assertNull(imported.get(1).getGenre());
+        verify(bookService, times(2)).addBooks(anyList()); // Batch size 2
+    }
+
+    @Test
+    void testImportNdjsonSkipsBadRowsAndDuplicates() throws IOException {
+        // Arrange
+        String ndjson = "{\"title\":\"Dune\",\"author\":\"Herbert\"}\n"
+                + "{\"title\":\"\",\"author\":\"Nobody\"}\n"
+                + "{\"title\":{\"nested\":true},\"author\":\"X\"}\n"
+                + "{\"title\":\"Emma\",\"author\":\"Austen\"}\n";
+        // Emma is already in the catalog, so only Dune is accepted
+        when(bookService.addBooks(anyList())).thenAnswer(invocation -> {
+            List<Book> batch = invocation.getArgument(0);
+            return batch.stream().filter(book -> !book.getTitle().equals("Emma")).toList();
+        });
+
+        // Act
+        ImportSummary summary = importService.importBooks(stream(ndjson), BookImportService.Format.NDJSON);
+
+        // Assert
+        assertEquals(1, summary.getAdded());
+        assertEquals(1, summary.getSkipped());
+        assertEquals(2, summary.getErrorCount());
+        assertTrue(summary.getErrors().get(0).startsWith("Row 2: Missing title"));
+        assertTrue(summary.getErrors().get(1).startsWith("Row 3:"));
+    }
+
+    @Test
+    void testImportCsvWithHeader() throws IOException {
+        // Arrange
+        List<Book> imported = acceptAll();
+        String csv = "title,author,genre\nDune,Herbert,Sci-Fi\n\"War, and Peace\",Tolstoy,\n";
+
+        // Act
+        ImportSummary summary = importService.importBooks(stream(csv), BookImportService.Format.CSV);
+
+        // Assert
+        assertEquals(2, summary.getAdded());
+        assertEquals("War, and Peace", imported.get(1).getTitle());
+        assertNull(imported.get(1).getGenre());
+    }
+
+    @Test
+    void testErrorListIsCappedButCounted() throws IOException {
+        // Arrange
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            ndjson.append("{\"title\":\"Book ").append(i).append("\"}\n");
+        }
+
+        // Act
+        ImportSummary summary = importService.importBooks(stream(ndjson.toString()), BookImportService.Format.NDJSON);
+
+        // Assert
+        assertEquals(10, summary.getErrorCount());
+        assertEquals(3, summary.getErrors().size());
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    void testUnreadableFileRejected() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> importService.importBooks(stream("this is not json"), BookImportService.Format.JSON));
+    }
+
+    @Test
+    void testDetectFormat() {
+        assertEquals(BookImportService.Format.CSV, BookImportService.Format.detect(null, "books.csv", null));
+        assertEquals(BookImportService.Format.NDJSON, BookImportService.Format.detect(null, "books.jsonl", null));
+        assertEquals(BookImportService.Format.JSON, BookImportService.Format.detect(null, "upload", "application/json"));
+        assertEquals(BookImportService.Format.NDJSON, BookImportService.Format.detect("ndjson", "books.json", null));
+        assertNull(BookImportService.Format.detect("xml", "books.json", null));
+    }
+}
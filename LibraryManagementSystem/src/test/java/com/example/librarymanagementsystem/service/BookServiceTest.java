@@ -4,11 +4,13 @@ import com.example.librarymanagementsystem.model.Book;
 import com.example.librarymanagementsystem.model.enums.BookStatus;
 import com.example.librarymanagementsystem.repository.BookRepository;
 import com.example.librarymanagementsystem.repository.RentalRepository;
+import com.example.librarymanagementsystem.util.CatalogVersion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
@@ -28,6 +30,9 @@ class BookServiceTest {
     @Mock
     private RentalRepository rentalRepository;
 
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion();
+
     @InjectMocks
     private BookService bookService;
 
@@ -71,6 +76,21 @@ class BookServiceTest {
         assertEquals("Test Book", result.get().getTitle());
     }
 
+    @Test
+    void testFindByIdsSkipsUnknownIds() {
+        // Arrange
+        when(bookRepository.findById("test-book-id")).thenReturn(Optional.of(testBook));
+        when(bookRepository.findById("missing-id")).thenReturn(Optional.empty());
+
+        // Act
+        List<Book> result = bookService.findByIds(List.of("missing-id", "test-book-id"));
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("test-book-id", result.get(0).getId());
+        verify(bookRepository, never()).findAll();
+    }
+
     @Test
     void testSearchByTitle() {
         // Arrange
@@ -100,6 +120,20 @@ class BookServiceTest {
         verify(bookRepository).save(any(Book.class));
     }
 
+    @Test
+    void testAddBookBumpsCatalogVersion() {
+        // Arrange
+        when(bookRepository.existsByTitleAndAuthor("New Book", "New Author")).thenReturn(false);
+        when(bookRepository.save(any(Book.class))).thenReturn(testBook);
+        long before = catalogVersion.current();
+
+        // Act
+        bookService.addBook("New Book", "New Author", "Fiction");
+
+        // Assert
+        assertEquals(before + 1, catalogVersion.current());
+    }
+
     @Test
     void testAddBookFailureDuplicate() {
         // Arrange
@@ -156,4 +190,25 @@ class BookServiceTest {
         assertEquals(1, result.size());
         assertEquals(BookStatus.AVAILABLE, result.get(0).getStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAddBooksSkipsDuplicatesInOneWrite() {
+        // Arrange
+        Book existing = new Book(null, "Test Book", "Test Author", "Fiction");
+        Book fresh = new Book(null, "New Book", "New Author", null);
+        Book repeated = new Book(null, "  new book ", "NEW AUTHOR", "Drama");
+        when(bookRepository.existsByTitleAndAuthor("Test Book", "Test Author")).thenReturn(true);
+        when(bookRepository.existsByTitleAndAuthor("New Book", "New Author")).thenReturn(false);
+
+        // Act
+        List<Book> added = bookService.addBooks(List.of(existing, fresh, repeated));
+
+        // Assert
+        assertEquals(1, added.size());
+        assertEquals("New Book", added.get(0).getTitle());
+        assertNotNull(added.get(0).getId());
+        verify(bookRepository, times(1)).saveAll(added);
+        verify(bookRepository, never()).save(any(Book.class));
+        verify(catalogVersion, times(1)).bump();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.util.CacheHelper;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingServiceTest {
+
+    private final FlightRecordingService service = new FlightRecordingService(5, false, "default");
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testRecordingCapturesLibraryEvents() throws Exception {
+        // Arrange
+        service.start("default");
+        CacheHelper cacheHelper = new CacheHelper();
+
+        // Act
+        cacheHelper.get("missing_key", String.class);
+        Path file = service.stop();
+
+        // Assert
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("library.CacheMiss")
+                && e.getString("key").equals("missing_key")));
+    }
+
+    @Test
+    void testEachDownloadGetsItsOwnFile() throws Exception {
+        // Arrange
+        service.start("default");
+        Path snapshot = service.download();
+        Path stopped = service.stop();
+
+        // Act
+        Path first = service.download();
+        Path second = service.download();
+        FlightRecordingService.deleteQuietly(first);
+
+        // Assert - a stop or another download never removes a file still being sent
+        assertTrue(Files.exists(snapshot));
+        assertNotEquals(first, second);
+        assertTrue(Files.exists(stopped));
+        assertEquals(Files.size(stopped), Files.size(second));
+        FlightRecordingService.deleteQuietly(snapshot);
+        FlightRecordingService.deleteQuietly(second);
+    }
+
+    @Test
+    void testStartAndStopRejectWrongState() {
+        // Act & Assert
+        assertThrows(FlightRecordingService.RecordingStateException.class, service::stop);
+        service.start("default");
+        assertThrows(FlightRecordingService.RecordingStateException.class, () -> service.start("default"));
+        assertThrows(IllegalArgumentException.class, () -> {
+            service.stop();
+            service.start("no-such-settings");
+        });
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.model.dto.ImportJobStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportJobServiceTest {
+
+    @Mock
+    private BookService bookService;
+
+    @TempDir
+    Path tempDir;
+
+    private ImportJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        jobService = new ImportJobService(new BookImportService(bookService, 2, 10), 1, 2, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+    }
+
+    private ImportJobStatus awaitFinished(String id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            ImportJobStatus status = jobService.getStatus(id).orElseThrow();
+            if (status.getFinishedAt() != null) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        fail("Import job did not finish");
+        return null;
+    }
+
+    @Test
+    void testJobRunsInBackgroundAndReportsSummary() throws Exception {
+        // Arrange
+        when(bookService.addBooks(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        Path upload = tempDir.resolve("books.ndjson");
+        Files.writeString(upload, "{\"title\":\"Dune\",\"author\":\"Herbert\"}\n"
+                + "{\"title\":\"Emma\",\"author\":\"Austen\"}\n"
+                + "{\"author\":\"Nobody\"}\n");
+
+        // Act
+        ImportJobStatus queued = jobService.submit(upload, Files.size(upload), BookImportService.Format.NDJSON);
+        ImportJobStatus finished = awaitFinished(queued.getId());
+
+        // Assert
+        assertEquals("COMPLETED", finished.getState());
+        assertEquals(3, finished.getRowsProcessed());
+        assertEquals(2, finished.getSummary().getAdded());
+        assertEquals(1, finished.getSummary().getErrorCount());
+        assertFalse(Files.exists(upload)); // Temp copy cleaned up
+    }
+
+    @Test
+    void testUnknownJob() {
+        // Act & Assert
+        assertTrue(jobService.getStatus("missing").isEmpty());
+        assertTrue(jobService.cancel("missing").isEmpty());
+    }
+
+    @Test
+    void testUnreadableFileFailsJob() throws Exception {
+        // Arrange
+        Path upload = tempDir.resolve("books.json");
+        Files.writeString(upload, "not json at all");
+
+        // Act
+        ImportJobStatus queued = jobService.submit(upload, Files.size(upload), BookImportService.Format.JSON);
+        ImportJobStatus finished = awaitFinished(queued.getId());
+
+        // Assert
+        assertEquals("FAILED", finished.getState());
+        assertNotNull(finished.getError());
+        verifyNoInteractions(bookService);
+    }
+}
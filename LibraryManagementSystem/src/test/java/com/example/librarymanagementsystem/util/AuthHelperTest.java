@@ -0,0 +1,157 @@
+package com.example.librarymanagementsystem.util;
+
+import com.example.librarymanagementsystem.model.User;
+import com.example.librarymanagementsystem.model.enums.UserRole;
+import com.example.librarymanagementsystem.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthHelperTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SignedTokenHelper tokenHelper;
+
+    @InjectMocks
+    private AuthHelper authHelper;
+
+    private User testUser;
+    private MockHttpSession session;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId("test-user-id");
+        testUser.setUsername("testuser");
+        testUser.setRole(UserRole.ADMIN);
+
+        session = new MockHttpSession();
+        session.setAttribute("userId", "test-user-id");
+        session.setAttribute("username", "testuser");
+    }
+
+    private MockHttpServletRequest requestWithSession() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+        return request;
+    }
+
+    @Test
+    void testIdentityResolvedOncePerRequest() {
+        // Arrange
+        when(userRepository.findById("test-user-id")).thenReturn(Optional.of(testUser));
+        MockHttpServletRequest request = requestWithSession();
+
+        // Act
+        boolean authenticated = authHelper.isAuthenticated(request);
+        boolean admin = authHelper.isAdmin(request);
+        Optional<User> current = authHelper.getCurrentUser(request);
+
+        // Assert
+        assertTrue(authenticated);
+        assertTrue(admin);
+        assertEquals("testuser", current.get().getUsername());
+        verify(userRepository, times(1)).findById("test-user-id");
+    }
+
+    @Test
+    void testSessionCacheReusedAcrossRequests() {
+        // Arrange
+        when(userRepository.findById("test-user-id")).thenReturn(Optional.of(testUser));
+
+        // Act
+        authHelper.getCurrentUser(requestWithSession());
+        authHelper.getCurrentUser(requestWithSession());
+
+        // Assert
+        verify(userRepository, times(1)).findById("test-user-id");
+    }
+
+    @Test
+    void testEvictUserForcesNewLookup() {
+        // Arrange
+        when(userRepository.findById("test-user-id")).thenReturn(Optional.of(testUser));
+        authHelper.getCurrentUser(requestWithSession());
+
+        // Act
+        authHelper.evictUser("test-user-id");
+        authHelper.getCurrentUser(requestWithSession());
+
+        // Assert
+        verify(userRepository, times(2)).findById("test-user-id");
+    }
+
+    @Test
+    void testNoSessionMeansAnonymous() {
+        // Act
+        Optional<User> current = authHelper.getCurrentUser(new MockHttpServletRequest());
+
+        // Assert
+        assertTrue(current.isEmpty());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testTokenModeResolvesUserFromClaims() {
+        // Arrange
+        SignedTokenHelper.Claims claims = new SignedTokenHelper.Claims(
+                "token-id", "test-user-id", UserRole.ADMIN, 0L, Long.MAX_VALUE);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer signed-token");
+        when(tokenHelper.isEnabled()).thenReturn(true);
+        when(tokenHelper.extractToken(request)).thenReturn(Optional.of("signed-token"));
+        when(tokenHelper.verify("signed-token")).thenReturn(Optional.of(claims));
+        when(userRepository.findById("test-user-id")).thenReturn(Optional.of(testUser));
+
+        // Act
+        Optional<String> userId = authHelper.getCurrentUserId(request);
+        boolean admin = authHelper.isAdmin(request);
+
+        // Assert
+        assertEquals("test-user-id", userId.get());
+        assertTrue(admin);
+        assertNull(request.getSession(false));
+        verify(tokenHelper, times(1)).verify("signed-token");
+    }
+
+    @Test
+    void testPaginationRejectsBadSizesAndHugePages() {
+        // Arrange
+        List<String> items = List.of("a", "b", "c");
+
+        // Act & Assert
+        assertEquals(List.of("c"), authHelper.applyPagination(items, 1, 2));
+        assertTrue(authHelper.applyPagination(items, Integer.MAX_VALUE, 100).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> authHelper.applyPagination(items, 0, 101));
+        assertThrows(IllegalArgumentException.class, () -> authHelper.applyPagination(items, -1, 20));
+        assertThrows(IllegalArgumentException.class, () -> authHelper.applyPagination(items, 0, -5));
+    }
+
+    @Test
+    void testValidateIdsDropsRepeatsAndEnforcesLimit() {
+        // Act
+        List<String> ids = authHelper.validateIds(List.of("a", "b", "a"));
+
+        // Assert
+        assertEquals(List.of("a", "b"), ids);
+        assertThrows(IllegalArgumentException.class, () -> authHelper.validateIds(List.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> authHelper.validateIds(Collections.nCopies(101, "a")));
+    }
+}
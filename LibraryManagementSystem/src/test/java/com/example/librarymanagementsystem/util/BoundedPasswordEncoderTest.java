@@ -0,0 +1,101 @@
+package com.example.librarymanagementsystem.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void testHashTimeIsRecorded() {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(NoOpPasswordEncoder.getInstance(), 1, 1, Duration.ofSeconds(5));
+        encoder.bindTo(registry);
+
+        // Act
+        String hash = encoder.encode("secret");
+        boolean matches = encoder.matches("secret", hash);
+
+        // Assert
+        assertTrue(matches);
+        assertEquals(2, registry.get("library.password.hash").timer().count());
+        assertEquals(0.0, registry.get("library.password.rejected").functionCounter().count());
+    }
+
+    @Test
+    void testSaturatedPoolShowsInGaugesAndRejections() {
+        // Arrange - one thread and one queue slot
+        encoder = new BoundedPasswordEncoder(blockingEncoder(), 1, 1, Duration.ofMillis(50));
+        encoder.bindTo(registry);
+
+        // Act - "a" times out but keeps the thread, "b" times out in the queue (a cancelled
+        // task keeps its slot until the thread reaches it), "c" finds the queue full
+        assertThrows(BoundedPasswordEncoder.SaturatedException.class, () -> encoder.encode("a"));
+        assertThrows(BoundedPasswordEncoder.SaturatedException.class, () -> encoder.encode("b"));
+        assertThrows(BoundedPasswordEncoder.SaturatedException.class, () -> encoder.encode("c"));
+
+        // Assert
+        assertEquals(1.0, registry.get("library.password.active").gauge().value());
+        assertEquals(1.0, registry.get("library.password.queue").gauge().value());
+        assertEquals(3.0, registry.get("library.password.rejected").functionCounter().count());
+    }
+
+    @Test
+    void testSaturationAnswersWithServiceUnavailable() {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(blockingEncoder(), 1, 1, Duration.ofMillis(50));
+        BoundedPasswordEncoder.SaturatedException busy =
+                assertThrows(BoundedPasswordEncoder.SaturatedException.class, () -> encoder.encode("a"));
+
+        // Act
+        ResponseEntity<Map<String, String>> response = busy.toResponse();
+
+        // Assert
+        assertEquals(503, response.getStatusCode().value());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(busy.getMessage(), response.getBody().get("error"));
+    }
+
+    // Ignores interrupts so a cancelled hash keeps its thread, like a running BCrypt round does
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                while (release.getCount() > 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        // Keep the thread busy
+                    }
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.librarymanagementsystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogPageCacheTest {
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+
+    private static CatalogPageCache.Key key(int page) {
+        return new CatalogPageCache.Key("", page, 20, "", WireFormats.Format.JSON);
+    }
+
+    @Test
+    void testPageIsServedUntilCatalogVersionChanges() {
+        // Arrange
+        CatalogPageCache cache = new CatalogPageCache(catalogVersion, 1024 * 1024);
+        long version = cache.currentVersion();
+        cache.store(key(0), version, "{\"content\":[]}".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        CatalogPageCache.Page hit = cache.get(key(0));
+        CatalogPageCache.Page otherPage = cache.get(key(1));
+        catalogVersion.bump();
+        CatalogPageCache.Page afterBump = cache.get(key(0));
+
+        // Assert
+        assertNotNull(hit);
+        assertTrue(hit.gzip().length > 0);
+        assertNull(otherPage);
+        assertNull(afterBump);
+    }
+
+    @Test
+    void testPageBuiltFromOlderVersionIsNotStored() {
+        // Arrange - the catalog changed while the page was being built
+        CatalogPageCache cache = new CatalogPageCache(catalogVersion, 1024 * 1024);
+        long version = cache.currentVersion();
+        catalogVersion.bump();
+
+        // Act
+        CatalogPageCache.Page built = cache.store(key(0), version, "[]".getBytes(StandardCharsets.UTF_8));
+
+        // Assert - still returned for this response, never served later
+        assertNotNull(built);
+        assertNull(cache.get(key(0)));
+    }
+
+    @Test
+    void testCacheIsBoundedByBytes() {
+        // Arrange
+        CatalogPageCache cache = new CatalogPageCache(catalogVersion, 4 * 1024);
+        byte[] large = new byte[8 * 1024];
+
+        // Act
+        cache.store(key(0), cache.currentVersion(), large);
+
+        // Assert - a page heavier than the whole budget is not kept
+        assertNull(cache.get(key(0)));
+    }
+}
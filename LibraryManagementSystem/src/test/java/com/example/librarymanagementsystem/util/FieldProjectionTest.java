@@ -0,0 +1,110 @@
+package com.example.librarymanagementsystem.util;
+
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.model.Rental;
+import com.example.librarymanagementsystem.model.User;
+import com.example.librarymanagementsystem.model.dto.PagedResponse;
+import com.example.librarymanagementsystem.model.dto.RentalWithBook;
+import com.example.librarymanagementsystem.model.enums.UserRole;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldProjectionTest {
+
+    private final ObjectMapper reader = new ObjectMapper();
+    private FieldProjection fieldProjection;
+
+    @BeforeEach
+    void setUp() {
+        fieldProjection = new FieldProjection(new WireFormats(new ObjectMapper().registerModule(new JavaTimeModule())));
+    }
+
+    @Test
+    void testSelectedBookFieldsOnly() throws Exception {
+        // Arrange
+        Book book = new Book("book-1", "Dune", "Frank Herbert", "Sci-Fi");
+        FieldProjection.Projection projection = fieldProjection.forType(Book.class, "title, status");
+
+        // Act
+        JsonNode json = reader.readTree(projection.writer()
+                .writeValueAsBytes(new PagedResponse<>(List.of(book), 0, 20, 1)));
+
+        // Assert
+        JsonNode item = json.get("content").get(0);
+        assertEquals("id,status,title", projection.fields());
+        assertEquals(3, item.size());
+        assertEquals("Dune", item.get("title").asText());
+        assertEquals(1, json.get("total").asInt()); // Page envelope is untouched
+    }
+
+    @Test
+    void testUserPasswordHashNeverWritten() throws Exception {
+        // Arrange
+        User user = new User();
+        user.setId("user-1");
+        user.setUsername("alice");
+        user.setPasswordHash("$2a$10$secret");
+        user.setRole(UserRole.USER);
+
+        // Act
+        JsonNode all = reader.readTree(fieldProjection.forType(User.class, null).writer()
+                .writeValueAsBytes(List.of(user)));
+
+        // Assert
+        assertEquals("alice", all.get(0).get("username").asText());
+        assertFalse(all.get(0).has("passwordHash"));
+        assertThrows(IllegalArgumentException.class, () -> fieldProjection.forType(User.class, "passwordHash"));
+    }
+
+    @Test
+    void testExpandedRentalKeepsSelectedFields() throws Exception {
+        // Arrange
+        Rental rental = new Rental("rental-1", "user-1", "book-1");
+        Book book = new Book("book-1", "Dune", "Frank Herbert", "Sci-Fi");
+        FieldProjection.Projection projection = fieldProjection.forType(Rental.class, "bookId,book");
+
+        // Act
+        JsonNode item = reader.readTree(projection.writer()
+                .writeValueAsBytes(List.of(new RentalWithBook(rental, book)))).get(0);
+
+        // Assert
+        assertEquals("rental-1", item.get("id").asText());
+        assertEquals("book-1", item.get("bookId").asText());
+        assertEquals("Dune", item.get("book").get("title").asText());
+        assertFalse(item.has("userId"));
+    }
+
+    @Test
+    void testWritersAreReusedAndUnknownFieldsRejected() {
+        // Act
+        FieldProjection.Projection first = fieldProjection.forType(Book.class, "title,id");
+        FieldProjection.Projection second = fieldProjection.forType(Book.class, "id,title,title");
+
+        // Assert
+        assertSame(first, second);
+        assertThrows(IllegalArgumentException.class, () -> fieldProjection.forType(Book.class, "isbn"));
+    }
+
+    @Test
+    void testCborProjectionDecodesToSameFields() throws Exception {
+        // Arrange
+        Book book = new Book("book-1", "Dune", "Frank Herbert", "Sci-Fi");
+        FieldProjection.Projection projection = fieldProjection.forType(Book.class, "title", WireFormats.Format.CBOR);
+
+        // Act
+        byte[] cbor = projection.writer().writeValueAsBytes(List.of(book));
+        JsonNode item = new CBORMapper().readTree(cbor).get(0);
+
+        // Assert
+        assertEquals(2, item.size());
+        assertEquals("Dune", item.get("title").asText());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.librarymanagementsystem.util;
+
+import com.example.librarymanagementsystem.model.Book;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FragmentCacheTest {
+
+    private final FragmentCache<Book> fragments = new FragmentCache<>(Book.class, Book::getId, 1024 * 1024);
+
+    @Test
+    void testAssembledArrayMatchesDirectSerialization() throws Exception {
+        // Arrange
+        List<Book> books = List.of(
+                new Book("book-1", "Dune", "Frank Herbert", "Sci-Fi"),
+                new Book("book-2", "Emma", "Jane Austen", "Classic"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        fragments.writeArray(books.iterator(), out);
+
+        // Assert
+        assertArrayEquals(JsonMappers.shared().writeValueAsBytes(books), out.toByteArray());
+    }
+
+    @Test
+    void testFragmentReusedUntilInvalidated() {
+        // Arrange
+        Book book = new Book("book-1", "Dune", "Frank Herbert", "Sci-Fi");
+        byte[] first = fragments.get(book);
+
+        // Act
+        book.setTitle("Dune Messiah");
+        byte[] stale = fragments.get(book);
+        fragments.invalidate(book.getId());
+        byte[] fresh = fragments.get(book);
+
+        // Assert
+        assertSame(first, stale);
+        assertTrue(new String(fresh, StandardCharsets.UTF_8).contains("Dune Messiah"));
+    }
+
+    @Test
+    void testEmptyArray() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        fragments.writeArray(List.<Book>of().iterator(), out);
+
+        // Assert
+        assertEquals("[]", out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.librarymanagementsystem.util;
+
+import com.example.librarymanagementsystem.model.Rental;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonMappersTest {
+
+    @Test
+    void testDatesWrittenAsIsoStrings() throws Exception {
+        // Arrange
+        Rental rental = new Rental("rental-1", "user-1", "book-1");
+        rental.setRentDate(LocalDateTime.of(2024, 3, 1, 10, 30));
+
+        // Act
+        String json = JsonMappers.shared().writeValueAsString(rental);
+
+        // Assert
+        assertTrue(json.contains("\"rentDate\":\"2024-03-01T10:30:00\""));
+    }
+
+    @Test
+    void testReadsDataFilesWrittenWithTimestampArrays() throws Exception {
+        // Arrange: rentals.json as written before the shared mapper (dates as arrays, extra field)
+        String legacy = "[{\"id\":\"rental-1\",\"userId\":\"user-1\",\"bookId\":\"book-1\","
+                + "\"rentDate\":[2024,3,1,10,30],\"status\":\"ACTIVE\",\"returnDate\":null,\"legacy\":true}]";
+        ObjectReader reader = JsonMappers.shared().readerFor(new TypeReference<List<Rental>>() { });
+
+        // Act
+        List<Rental> rentals = reader.readValue(legacy);
+
+        // Assert
+        assertEquals(1, rentals.size());
+        assertEquals(LocalDateTime.of(2024, 3, 1, 10, 30), rentals.get(0).getRentDate());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.librarymanagementsystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentHashMapTest {
+
+    @Test
+    void testPutAndGet() {
+        // Arrange
+        PersistentHashMap<String, String> map = PersistentHashMap.empty();
+
+        // Act
+        map = map.put("a", "1").put("b", "2").put("a", "3");
+
+        // Assert
+        assertEquals(2, map.size());
+        assertEquals("3", map.get("a"));
+        assertEquals("2", map.get("b"));
+        assertNull(map.get("missing"));
+    }
+
+    @Test
+    void testOldSnapshotIsUnchangedAfterWrite() {
+        // Arrange
+        PersistentHashMap<String, String> before = PersistentHashMap.<String, String>empty().put("a", "1");
+
+        // Act
+        PersistentHashMap<String, String> after = before.put("b", "2").remove("a");
+
+        // Assert
+        assertEquals(1, before.size());
+        assertEquals("1", before.get("a"));
+        assertEquals(List.of("1"), before.values());
+        assertNull(after.get("a"));
+        assertEquals("2", after.get("b"));
+    }
+
+    @Test
+    void testHashCollisions() {
+        // "Aa" and "BB" share the same String hashCode
+        PersistentHashMap<String, Integer> map = PersistentHashMap.<String, Integer>empty()
+                .put("Aa", 1)
+                .put("BB", 2);
+
+        assertEquals(2, map.size());
+        assertEquals(1, map.get("Aa"));
+        assertEquals(2, map.get("BB"));
+
+        map = map.remove("Aa");
+        assertEquals(1, map.size());
+        assertNull(map.get("Aa"));
+        assertEquals(2, map.get("BB"));
+    }
+
+    @Test
+    void testMatchesHashMapUnderRandomOperations() {
+        // Arrange
+        Random random = new Random(42);
+        Map<Integer, Integer> expected = new HashMap<>();
+        PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+
+        // Act
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                expected.put(key, i);
+                map = map.put(key, i);
+            }
+        }
+
+        // Assert
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected.size(), map.values().size());
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    void testValuesAreReadOnly() {
+        PersistentHashMap<String, String> map = PersistentHashMap.<String, String>empty().put("a", "1");
+
+        assertThrows(UnsupportedOperationException.class, () -> map.values().add("2"));
+    }
+
+    @Test
+    void testValueIteratorMatchesValues() {
+        // Arrange
+        PersistentHashMap<String, Integer> map = PersistentHashMap.empty();
+        for (int i = 0; i < 5000; i++) {
+            map = map.put("key-" + i, i);
+        }
+        map = map.put("Aa", -1).put("BB", -2); // Collision bucket
+
+        // Act
+        List<Integer> iterated = new ArrayList<>();
+        Iterator<Integer> it = map.valueIterator();
+        while (it.hasNext()) {
+            iterated.add(it.next());
+        }
+
+        // Assert
+        assertEquals(map.values(), iterated);
+        assertFalse(PersistentHashMap.<String, Integer>empty().valueIterator().hasNext());
+        assertThrows(NoSuchElementException.class, it::next);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.librarymanagementsystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTimingsTest {
+
+    private final RequestTimings requestTimings = new RequestTimings(60_000);
+
+    @Test
+    void testPhasesRecordedPerRoute() throws Exception {
+        // Arrange
+        requestTimings.begin();
+        try (RequestTimings.Scope ignored = RequestTimings.phase(RequestTimings.Phase.SERVICE)) {
+            // Nested service call is not counted twice
+            try (RequestTimings.Scope nested = RequestTimings.phase(RequestTimings.Phase.SERVICE)) {
+                Thread.sleep(5);
+            }
+        }
+
+        // Act
+        requestTimings.end("POST", "/books/{id}/rent", 200);
+        requestTimings.end("POST", "/books/{id}/rent", 200); // No open timing: ignored
+        Map<String, Map<String, Map<String, Object>>> snapshot = requestTimings.snapshot();
+
+        // Assert
+        Map<String, Map<String, Object>> route = snapshot.get("POST /books/{id}/rent");
+        assertEquals(1L, route.get("total").get("count"));
+        assertEquals(0.0, route.get("auth").get("max"));
+        double service = (double) route.get("service").get("max");
+        assertTrue(service >= 5.0 && service <= (double) route.get("total").get("max"));
+    }
+
+    @Test
+    void testPhaseOutsideRequestIsNoop() {
+        // Act
+        try (RequestTimings.Scope ignored = RequestTimings.phase(RequestTimings.Phase.AUTH)) {
+            requestTimings.end("GET", null, 404);
+        }
+
+        // Assert
+        assertTrue(requestTimings.snapshot().isEmpty());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.librarymanagementsystem.util;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SampledLoggerTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SampledLoggerTest.class);
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        events.start();
+        logger.addAppender(events);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(events);
+    }
+
+    @Test
+    void testEachCategoryIsLimitedSeparately() {
+        // Arrange
+        SampledLogger sampled = SampledLogger.of(SampledLoggerTest.class, 2);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            sampled.atWarn("login.failure").addKeyValue("username", "alice").log("Login failed");
+        }
+        sampled.atWarn("session.failed").log("Session creation failed");
+
+        // Assert - a burst may straddle a second boundary, so allow one extra window
+        long failures = events.list.stream().filter(e -> e.getMessage().equals("Login failed")).count();
+        assertTrue(failures >= 2 && failures <= 4, "got " + failures);
+        assertEquals(1, events.list.stream().filter(e -> e.getMessage().equals("Session creation failed")).count());
+        assertTrue(events.list.get(0).getKeyValuePairs().stream()
+                .anyMatch(kv -> kv.key.equals("event") && kv.value.equals("login.failure")));
+    }
+}
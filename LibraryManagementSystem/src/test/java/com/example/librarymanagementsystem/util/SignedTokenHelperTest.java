@@ -0,0 +1,86 @@
+package com.example.librarymanagementsystem.util;
+
+import com.example.librarymanagementsystem.model.User;
+import com.example.librarymanagementsystem.model.enums.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignedTokenHelperTest {
+
+    private static final String OLD_KEY = "old:" + Base64.getEncoder().encodeToString("old-secret-old-secret-old-secret".getBytes());
+    private static final String NEW_KEY = "new:" + Base64.getEncoder().encodeToString("new-secret-new-secret-new-secret".getBytes());
+
+    private SignedTokenHelper tokenHelper;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        tokenHelper = new SignedTokenHelper("token", 60, NEW_KEY + "," + OLD_KEY);
+
+        testUser = new User();
+        testUser.setId("test-user-id");
+        testUser.setUsername("testuser");
+        testUser.setRole(UserRole.ADMIN);
+    }
+
+    @Test
+    void testIssuedTokenVerifies() {
+        // Act
+        Optional<SignedTokenHelper.Claims> claims = tokenHelper.verify(tokenHelper.issue(testUser));
+
+        // Assert
+        assertTrue(claims.isPresent());
+        assertEquals("test-user-id", claims.get().userId());
+        assertEquals(UserRole.ADMIN, claims.get().role());
+    }
+
+    @Test
+    void testTamperedTokenRejected() {
+        // Arrange
+        String token = tokenHelper.issue(testUser);
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("x|someone-else|ADMIN|0|99999999999999".getBytes());
+
+        // Act & Assert
+        assertTrue(tokenHelper.verify(parts[0] + "." + parts[1] + "." + forgedPayload + "." + parts[3]).isEmpty());
+        assertTrue(tokenHelper.verify("garbage").isEmpty());
+    }
+
+    @Test
+    void testTokensSignedWithRotatedKeyStillVerify() {
+        // Arrange - token issued before "new" was added in front of "old"
+        SignedTokenHelper beforeRotation = new SignedTokenHelper("token", 60, OLD_KEY);
+        SignedTokenHelper afterRetirement = new SignedTokenHelper("token", 60, NEW_KEY);
+        String oldToken = beforeRotation.issue(testUser);
+
+        // Act & Assert
+        assertTrue(tokenHelper.verify(oldToken).isPresent());
+        assertTrue(afterRetirement.verify(oldToken).isEmpty());
+    }
+
+    @Test
+    void testRevokedTokensRejected() {
+        // Arrange
+        String loggedOut = tokenHelper.issue(testUser);
+        String demoted = tokenHelper.issue(testUser);
+
+        // Act
+        tokenHelper.revoke(tokenHelper.verify(loggedOut).get());
+
+        // Assert
+        assertTrue(tokenHelper.verify(loggedOut).isEmpty());
+        assertTrue(tokenHelper.verify(demoted).isPresent());
+
+        // Act
+        tokenHelper.revokeUser("test-user-id");
+
+        // Assert
+        assertTrue(tokenHelper.verify(demoted).isEmpty());
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.librarymanagementsystem.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WireFormatsTest {
+
+    @Test
+    void testNegotiateFollowsAcceptHeader() {
+        assertEquals(WireFormats.Format.JSON, WireFormats.negotiate(request(null)));
+        assertEquals(WireFormats.Format.JSON, WireFormats.negotiate(request("*/*")));
+        assertEquals(WireFormats.Format.CBOR, WireFormats.negotiate(request("application/cbor")));
+        assertEquals(WireFormats.Format.SMILE, WireFormats.negotiate(request("application/x-jackson-smile, */*")));
+    }
+
+    @Test
+    void testNegotiateHonoursQualityValues() {
+        assertEquals(WireFormats.Format.CBOR,
+                WireFormats.negotiate(request("application/json;q=0.5, application/cbor")));
+        assertEquals(WireFormats.Format.JSON,
+                WireFormats.negotiate(request("application/cbor;q=0, application/json")));
+        assertEquals(WireFormats.Format.JSON, WireFormats.negotiate(request("not a media type")));
+    }
+
+    private static MockHttpServletRequest request(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (accept != null) {
+            request.addHeader("Accept", accept);
+        }
+        return request;
+    }
+}